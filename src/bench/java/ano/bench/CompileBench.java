@@ -0,0 +1,221 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano.bench;
+
+import ano.TimingPlugin;
+import com.sun.source.util.JavacTask;
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark: generates a synthetic project and compiles it in-process with sample processors.
+ * <p>
+ * System properties (all optional):
+ * <ul>
+ *     <li>{@code bench.classes}: number of top level classes, default 1000</li>
+ *     <li>{@code bench.depth}: nesting depth of static member classes, default 1</li>
+ *     <li>{@code bench.fields}: fields per class, default 8</li>
+ *     <li>{@code bench.density}: fraction of classes and fields annotated, default 0.5</li>
+ *     <li>{@code bench.generator}: {@code javapoet}, {@code template} or {@code none}, default javapoet</li>
+ *     <li>{@code bench.iterations}: compilations to run, the first is reported as warm up, default 3</li>
+ * </ul>
+ * Run with {@code mvn -Pbench test-compile exec:java -Dbench.classes=10000}.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class CompileBench {
+    private final int classes = Integer.getInteger("bench.classes", 1000);
+    private final int depth = Integer.getInteger("bench.depth", 1);
+    private final int fields = Integer.getInteger("bench.fields", 8);
+    private final double density = Double.parseDouble(System.getProperty("bench.density", "0.5"));
+    private final String generator = System.getProperty("bench.generator", "javapoet");
+    private final int iterations = Integer.getInteger("bench.iterations", 3);
+    /**
+     * fixed seed, runs are comparable
+     */
+    private final Random random = new Random(42);
+
+    public static void main(String[] args) throws Exception {
+        new CompileBench().run();
+    }
+
+    private void run() throws IOException {
+        var root = Files.createTempDirectory("ano-bench");
+        try {
+            var sources = root.resolve("src");
+            var files = generate(sources);
+            System.out.printf("ano bench: %d files (%d classes, depth %d, %d fields, density %.2f), generator %s%n",
+                    files.size(), classes, depth, fields, density, generator);
+            for (var i = 0; i < iterations; i++) {
+                var out = root.resolve("out" + i);
+                Files.createDirectories(out.resolve("classes"));
+                Files.createDirectories(out.resolve("generated"));
+                compile(files, out, i == 0 ? "warm up" : "run " + i);
+                delete(out);
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    //region Synthetic project
+    private List<File> generate(Path sources) throws IOException {
+        var files = new ArrayList<File>(classes);
+        var perPackage = 100;
+        for (var i = 0; i < classes; i++) {
+            var pkg = "synthetic.p" + (i / perPackage);
+            var name = "C" + i;
+            var dir = sources.resolve(pkg.replace('.', File.separatorChar));
+            Files.createDirectories(dir);
+            var b = new StringBuilder(2048);
+            b.append("package ").append(pkg).append(";\n\n");
+            type(b, name, 0, true);
+            var file = dir.resolve(name + ".java");
+            Files.write(file, b.toString().getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+        return files;
+    }
+
+    private void type(StringBuilder b, String name, int level, boolean top) {
+        var indent = repeat(level);
+        if (top || random.nextDouble() < density) {
+            b.append(indent).append("@ano.bench.Entity(table = \"t_").append(name.toLowerCase())
+                    .append("\", tags = {\"a\", \"b\"}")
+                    .append(random.nextBoolean() ? ", repository = java.util.List.class" : "")
+                    .append(")\n");
+        }
+        b.append(indent).append(top ? "public class " : "public static class ").append(name).append(" {\n");
+        for (var f = 0; f < fields; f++) {
+            if (random.nextDouble() < density) {
+                b.append(indent).append("    @ano.bench.Column(name = \"c_").append(f).append('"')
+                        .append(random.nextBoolean() ? ", nullable = false" : "").append(")\n");
+            }
+            b.append(indent).append("    private ").append(FIELD_TYPES[f % FIELD_TYPES.length]).append(" f").append(f).append(";\n");
+        }
+        if (level < depth) type(b, name + "N" + (level + 1), level + 1, false);
+        b.append(indent).append("}\n");
+    }
+
+    private static final String[] FIELD_TYPES = {"String", "int", "long", "java.util.List<String>", "java.util.Map<String, java.util.List<Integer>>", "Double"};
+
+    private static String repeat(int level) {
+        var b = new StringBuilder();
+        for (var i = 0; i < level; i++) b.append("    ");
+        return b.toString();
+    }
+    //endregion
+
+    @SneakyThrows
+    private void compile(List<File> files, Path out, String label) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IllegalStateException("a JDK is required");
+        try (StandardJavaFileManager fm = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fm.getJavaFileObjectsFromFiles(files);
+            var options = Arrays.asList(
+                    "-proc:only".equals(System.getProperty("bench.proc")) ? "-proc:only" : "-implicit:none",
+                    "-nowarn",
+                    //processors only record into the timings with option profile
+                    "-Aprofile",
+                    "-classpath", classpath(),
+                    "-d", out.resolve("classes").toString(),
+                    "-s", out.resolve("generated").toString());
+            var task = (JavacTask) compiler.getTask(null, fm, null, options, null, units);
+            task.setProcessors(processors());
+            var timings = TimingPlugin.listen(task);
+            System.gc();
+            var pools = ManagementFactory.getMemoryPoolMXBeans();
+            for (var p : pools) p.resetPeakUsage();
+            var allocated = allocatedBytes();
+            var begin = System.nanoTime();
+            var ok = task.call();
+            var wall = System.nanoTime() - begin;
+            allocated = allocatedBytes() - allocated;
+            long peak = 0;
+            for (MemoryPoolMXBean p : pools) {
+                if (p.getType() == MemoryType.HEAP) peak += p.getPeakUsage().getUsed();
+            }
+            var processing = timings.phaseNanos("ANNOTATION_PROCESSING");
+            System.out.printf("%-8s %s wall %6d ms, annotation processing %6d ms (%4.1f%%), processors %6d ms (%4.1f%%), allocated %6d MB, peak heap %5d MB%n",
+                    label, ok ? "ok  " : "FAIL",
+                    ms(wall), ms(processing), processing * 100.0 / wall,
+                    ms(timings.processorNanos()), timings.processorNanos() * 100.0 / wall,
+                    allocated >> 20, peak >> 20);
+        }
+    }
+
+    private List<Processor> processors() {
+        switch (generator) {
+            case "javapoet":
+                return Collections.singletonList(new MapperGenerator());
+            case "template":
+                return Collections.singletonList(new TemplateMapperGenerator());
+            case "none":
+                return Collections.emptyList();
+            default:
+                throw new IllegalArgumentException("unknown generator " + generator);
+        }
+    }
+
+    /**
+     * @return classpath of synthetic project: bench annotations.
+     */
+    @SneakyThrows
+    private static String classpath() {
+        return new File(Entity.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    /**
+     * @return allocated bytes of current thread, -1 if not supported
+     */
+    private static long allocatedBytes() {
+        var bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+
+    private static long ms(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        try (var walk = Files.walk(path)) {
+            var all = new ArrayList<Path>();
+            walk.forEach(all::add);
+            Collections.reverse(all);
+            for (var p : all) Files.delete(p);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano.bench;
+
+import ano.JavaGenerator;
+import com.squareup.javapoet.*;
+import lombok.var;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sample JavaPoet generator: a mapper of column names for each entity.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public class MapperGenerator extends JavaGenerator<Entity, TypeElement> {
+    public static class ColumnConf {
+        String name;
+        boolean nullable = true;
+        int length = 255;
+    }
+
+    public MapperGenerator() {
+        super(Entity.class, TypeElement.class, "Mapper");
+    }
+
+    static String flatName(TypeElement type) {
+        var b = new StringBuilder(type.getSimpleName());
+        for (var e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            b.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return b.toString();
+    }
+
+    @Override
+    protected List<JavaFile> build(String pkg, TypeElement type, Entity anno) {
+        var spec = generatedBy(TypeSpec.classBuilder(flatName(type) + suffix)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addOriginatingElement(type));
+        spec.addField(FieldSpec.builder(String.class, "TABLE", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", anno.table()).build());
+        var columns = CodeBlock.builder();
+        for (var f : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!annotationIndex().exists(f, Column.class)) continue;
+            var conf = scope().mirrors(f).find(Column.class).map(m -> m.bind(ColumnConf.class)).orElse(null);
+            if (conf == null) continue;
+            spec.addMethod(MethodSpec.methodBuilder(f.getSimpleName() + "Column")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(String.class)
+                    .addStatement("return $S", conf.name)
+                    .build());
+            spec.addMethod(MethodSpec.methodBuilder(f.getSimpleName() + "Check")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(boolean.class)
+                    .addParameter(erasedTypeName(f.asType()), "v")
+                    .addStatement("return $L", conf.nullable || f.asType().getKind().isPrimitive() ? "true" : "v != null")
+                    .build());
+            columns.add(columns.isEmpty() ? "$S" : ", $S", conf.name);
+        }
+        spec.addField(FieldSpec.builder(String[].class, "COLUMNS", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("{$L}", columns.build()).build());
+        return Collections.singletonList(JavaFile.builder(pkg, spec.build()).build());
+    }
+}
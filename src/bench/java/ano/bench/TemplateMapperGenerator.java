@@ -0,0 +1,57 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano.bench;
+
+import ano.Template;
+import ano.TemplateGenerator;
+import lombok.var;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Sample template generator, same output as {@link MapperGenerator}.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public class TemplateMapperGenerator extends TemplateGenerator<Entity, TypeElement> {
+    static final Template HEAD = Template.of("public final class ${name} {\n  public static final String TABLE = \"${table}\";\n");
+    static final Template COLUMN = Template.of("\n  public static String ${field}Column() {\n    return \"${column}\";\n  }\n"
+            + "\n  public static boolean ${field}Check(${type} v) {\n    return ${check};\n  }\n");
+    static final Template TAIL = Template.of("\n  public static final String[] COLUMNS = {${columns}};\n}\n");
+
+    public TemplateMapperGenerator() {
+        super(Entity.class, TypeElement.class, "TplMapper");
+    }
+
+    @Override
+    protected void build(String pkg, TypeElement type, Entity anno) {
+        var s = source(pkg, MapperGenerator.flatName(type) + suffix, type);
+        generatedBy(s).emit(HEAD, s.name(), anno.table());
+        var columns = new StringBuilder();
+        for (var f : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!annotationIndex().exists(f, Column.class)) continue;
+            var conf = scope().mirrors(f).find(Column.class).map(m -> m.bind(MapperGenerator.ColumnConf.class)).orElse(null);
+            if (conf == null) continue;
+            s.emit(COLUMN, f.getSimpleName(), conf.name, erasure(f.asType()), conf.nullable || f.asType().getKind().isPrimitive() ? "true" : "v != null");
+            if (columns.length() > 0) columns.append(", ");
+            columns.append('"').append(conf.name).append('"');
+        }
+        s.emit(TAIL, columns);
+        write(s);
+    }
+}
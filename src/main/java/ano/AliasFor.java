@@ -0,0 +1,49 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares an attribute of a composed annotation as override of an attribute of one of its meta-annotations,
+ * resolved by {@link AnnotatedMirrors#findMeta(Class)}.
+ * <pre>{@code
+ * @Route
+ * @Secured
+ * public @interface Endpoint {
+ *     @AliasFor(annotation = Route.class, attribute = "path")
+ *     String value();
+ * }
+ * }</pre>
+ * Retained in class files, so composed annotations of libraries are resolved too.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface AliasFor {
+    /**
+     * @return the meta-annotation, directly or indirectly present on the declaring annotation
+     */
+    Class<? extends Annotation> annotation();
+
+    /**
+     * @return attribute of the meta-annotation, default is the same name
+     */
+    String attribute() default "";
+}
@@ -21,9 +21,11 @@ import lombok.var;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,34 +35,95 @@ import java.util.stream.Collectors;
  * @author Zen.Liu
  * @since 2023-02-25
  */
-public class AnnotatedMirror {
+public class AnnotatedMirror implements RoundScope.Owned {
     protected final Map<String, AnnotationValue> values = new HashMap<>();
-    @Getter
-    @Accessors(fluent = true)
-    protected final TypeElement annotationType;
+    /**
+     * null after released
+     */
+    protected TypeElement annotationType;
     @Getter
     @Accessors(fluent = true)
     protected final String qualifiedName;
+    private boolean released;
 
     public AnnotatedMirror(AnnotationMirror mirror) {
-        final Map<String, AnnotationValue> defaults = new HashMap<>();
         mirror.getElementValues().forEach((k, v) -> {
-            var name = k.getSimpleName().toString();
-            var def = k.getDefaultValue();
-            if (!Objects.equals(def, v)) {
-                values.put(name, v);
+            if (!isDefault(k, v)) {
+                values.put(k.getSimpleName().toString(), v);
             }
         });
         annotationType = ((TypeElement) mirror.getAnnotationType().asElement());
         qualifiedName = annotationType.getQualifiedName().toString();
     }
 
+    /**
+     * synthesized mirror, eg: meta-annotation with values merged by {@link AnnotationGraph}.
+     * values equal to the defaults are dropped, same as {@link #AnnotatedMirror(AnnotationMirror)}.
+     *
+     * @param annotationType type of annotation
+     * @param values         explicit values
+     */
+    AnnotatedMirror(TypeElement annotationType, Map<String, AnnotationValue> values) {
+        this.annotationType = annotationType;
+        this.qualifiedName = annotationType.getQualifiedName().toString();
+        this.values.putAll(values);
+        for (var k : ElementFilter.methodsIn(annotationType.getEnclosedElements())) {
+            var name = k.getSimpleName().toString();
+            var v = this.values.get(name);
+            if (v != null && isDefault(k, v)) this.values.remove(name);
+        }
+    }
+
+    private static boolean isDefault(ExecutableElement attribute, AnnotationValue v) {
+        var def = attribute.getDefaultValue();
+        return def != null && (Objects.equals(def, v) || Objects.equals(def.getValue(), v.getValue()));
+    }
+
     public boolean isEmpty() {
-        return values.isEmpty();
+        return values().isEmpty();
+    }
+
+    /**
+     * @return none default values
+     * @throws IllegalStateException when released by {@link RoundScope}
+     */
+    protected Map<String, AnnotationValue> values() {
+        if (released) throw new IllegalStateException("AnnotatedMirror of " + qualifiedName + " was released at the end of round");
+        return values;
+    }
+
+    /**
+     * @throws IllegalStateException when released by {@link RoundScope}
+     */
+    public TypeElement annotationType() {
+        if (released) throw new IllegalStateException("AnnotatedMirror of " + qualifiedName + " was released at the end of round");
+        return annotationType;
+    }
+
+    @Override
+    public void release() {
+        released = true;
+        values.clear();
+        annotationType = null;
+    }
+
+    @Override
+    public long footprint() {
+        return 48 + values.size() * 48L;
+    }
+
+    /**
+     * bind values into a POJO, the binder of each type is built once.
+     *
+     * @param type POJO type, see {@link Binder} for the mapping rules.
+     * @return new instance of type
+     */
+    public <C> C bind(Class<C> type) {
+        return Binder.of(type).bind(this);
     }
 
     public <T> Optional<T> fetch(String name, Class<T> tClass) {
-        return Optional.ofNullable(values.get(name))
+        return Optional.ofNullable(values().get(name))
                 .map(x -> {
                     var v = x.getValue();
                     if (tClass.isInstance(v)) return tClass.cast(v);
@@ -70,7 +133,7 @@ public class AnnotatedMirror {
 
     @SuppressWarnings("unchecked")
     public <T> Optional<List<T>> fetchList(String name, Class<T> tClass) {
-        return Optional.ofNullable(values.get(name))
+        return Optional.ofNullable(values().get(name))
                 .map(AnnotationValue::getValue)
                 .filter(List.class::isInstance)
                 .map(List.class::cast)
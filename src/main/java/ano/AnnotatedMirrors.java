@@ -29,8 +29,14 @@ import java.util.stream.Stream;
 /**
  * Eager parsed Annotation Mirrors
  */
-public class AnnotatedMirrors implements Collection<AnnotationMirror> {
+public class AnnotatedMirrors implements Collection<AnnotationMirror>, RoundScope.Owned {
     final Map<TypeElement, AnnotationMirror> values = new HashMap<>();
+    private boolean released;
+    private AnnotationGraph graph;
+    /**
+     * repeatable annotation -> flattened mirrors
+     */
+    private Map<String, List<AnnotatedMirror>> repeated;
 
     public AnnotatedMirrors(List<? extends AnnotationMirror> mirrors) {
         for (var mirror : mirrors) {
@@ -38,24 +44,60 @@ public class AnnotatedMirrors implements Collection<AnnotationMirror> {
         }
     }
 
+    /**
+     * @param graph meta-annotation graph shared in a round
+     */
+    public AnnotatedMirrors(List<? extends AnnotationMirror> mirrors, AnnotationGraph graph) {
+        this(mirrors);
+        this.graph = graph;
+    }
+
+
+    @Override
+    public void release() {
+        released = true;
+        values.clear();
+        graph = null;
+        repeated = null;
+    }
+
+    @Override
+    public long footprint() {
+        long n = 64 + values.size() * 48L;
+        if (repeated != null) {
+            for (var l : repeated.values()) {
+                n += 48 + l.size() * 8L;
+                for (var m : l) n += m.footprint();
+            }
+        }
+        return n;
+    }
+
+    private void check() {
+        if (released) throw new IllegalStateException("AnnotatedMirrors was released at the end of round");
+    }
 
     //region Impl
     public int size() {
+        check();
         return values.size();
     }
 
     public boolean isEmpty() {
+        check();
         return values.isEmpty();
     }
 
     @Override
     public boolean contains(Object o) {
+        check();
         return values.containsValue(o);
     }
 
 
     @Override
     public Iterator<AnnotationMirror> iterator() {
+        check();
         return values.values().iterator();
     }
 
@@ -108,6 +150,7 @@ public class AnnotatedMirrors implements Collection<AnnotationMirror> {
     //endregion
 
     public Optional<AnnotatedMirror> find(Predicate<TypeElement> predicate) {
+        check();
         for (TypeElement key : values.keySet()) {
             if (predicate.test(key)) return Optional.of(new AnnotatedMirror(values.get(key)));
         }
@@ -115,10 +158,12 @@ public class AnnotatedMirrors implements Collection<AnnotationMirror> {
     }
 
     public Stream<AnnotatedMirror> findStream(Predicate<TypeElement> predicate) {
+        check();
         return values.keySet().stream().filter(predicate).map(values::get).map(AnnotatedMirror::new);
     }
 
     public Optional<AnnotatedMirror> find(Class<? extends Annotation> type) {
+        check();
         for (TypeElement key : values.keySet()) {
             if (key.getQualifiedName().toString().equals(type.getCanonicalName()))
                 return Optional.of(new AnnotatedMirror(values.get(key)));
@@ -128,6 +173,7 @@ public class AnnotatedMirrors implements Collection<AnnotationMirror> {
 
     @SafeVarargs
     public final Optional<Map.Entry<Class<? extends Annotation>, AnnotatedMirror>> oneOf(Class<? extends Annotation>... types) {
+        check();
         if (types.length == 0 || values.isEmpty()) return Optional.empty();
         var names = Arrays.stream(types).collect(Collectors.toMap(Class::getCanonicalName, Function.identity()));
         var keys = names.keySet();
@@ -139,4 +185,117 @@ public class AnnotatedMirrors implements Collection<AnnotationMirror> {
                         names.get(x.getQualifiedName().toString()),
                         new AnnotatedMirror(values.get(x))));
     }
+
+    //region Repeatable
+
+    /**
+     * find a repeatable annotation both directly present and held by its container, without annotation proxies.
+     *
+     * @param type annotation type
+     * @return present annotations, direct first then contained, cached. empty if not present.
+     */
+    public List<AnnotatedMirror> findAll(Class<? extends Annotation> type) {
+        return findAll(type.getCanonicalName());
+    }
+
+    /**
+     * @param qualifiedName qualified name of annotation type
+     * @see #findAll(Class)
+     */
+    public List<AnnotatedMirror> findAll(String qualifiedName) {
+        check();
+        if (repeated == null) repeated = new HashMap<>();
+        var r = repeated.get(qualifiedName);
+        if (r == null) {
+            r = flatten(qualifiedName);
+            repeated.put(qualifiedName, r);
+        }
+        return r;
+    }
+
+    private List<AnnotatedMirror> flatten(String qualifiedName) {
+        List<AnnotatedMirror> direct = null;
+        List<AnnotatedMirror> contained = null;
+        var g = graph();
+        for (var e : values.entrySet()) {
+            if (e.getKey().getQualifiedName().contentEquals(qualifiedName)) {
+                if (direct == null) direct = new ArrayList<>(1);
+                direct.add(new AnnotatedMirror(e.getValue()));
+                continue;
+            }
+            for (var m : g.repeated(e.getValue(), qualifiedName)) {
+                if (contained == null) contained = new ArrayList<>();
+                contained.add(new AnnotatedMirror(m));
+            }
+        }
+        if (direct == null && contained == null) return Collections.emptyList();
+        if (contained == null) return Collections.unmodifiableList(direct);
+        if (direct != null) contained.addAll(0, direct);
+        return Collections.unmodifiableList(contained);
+    }
+    //endregion
+
+    //region Meta-annotations
+
+    private AnnotationGraph graph() {
+        if (graph == null) graph = new AnnotationGraph();
+        return graph;
+    }
+
+    /**
+     * find annotation directly present, or as meta-annotation of a present (composed) annotation,
+     * values are merged with {@link AliasFor} overrides.
+     *
+     * @param type annotation type
+     * @return first found, direct annotation is preferred
+     */
+    public Optional<AnnotatedMirror> findMeta(Class<? extends Annotation> type) {
+        return findMeta(type.getCanonicalName());
+    }
+
+    /**
+     * @param qualifiedName qualified name of annotation type
+     * @see #findMeta(Class)
+     */
+    public Optional<AnnotatedMirror> findMeta(String qualifiedName) {
+        check();
+        for (var e : values.entrySet()) {
+            if (e.getKey().getQualifiedName().contentEquals(qualifiedName)) return Optional.of(new AnnotatedMirror(e.getValue()));
+        }
+        var g = graph();
+        for (var m : values.values()) {
+            var r = g.resolve(m, qualifiedName);
+            if (r != null) return Optional.of(r);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return all resolutions of the annotation, one for each present annotation reaching it
+     */
+    public List<AnnotatedMirror> findAllMeta(Class<? extends Annotation> type) {
+        check();
+        var name = type.getCanonicalName();
+        var g = graph();
+        var r = new ArrayList<AnnotatedMirror>();
+        for (var m : values.values()) {
+            var v = g.resolve(m, name);
+            if (v != null) r.add(v);
+        }
+        return r;
+    }
+
+    /**
+     * @return annotation is present directly or as meta-annotation
+     */
+    public boolean existsMeta(Class<? extends Annotation> type) {
+        check();
+        var name = type.getCanonicalName();
+        var g = graph();
+        for (var key : values.keySet()) {
+            if (g.reaches(key, name)) return true;
+        }
+        return false;
+    }
+    //endregion
 }
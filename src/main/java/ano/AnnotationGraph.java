@@ -0,0 +1,259 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.ElementFilter;
+import java.lang.annotation.Repeatable;
+import java.util.*;
+
+/**
+ * Memoized graph of annotation types to their meta-annotations, each annotation type is analysed once.
+ * <p>
+ * Resolves a meta-annotation of a composed annotation with values merged along the path:
+ * values declared on the meta-annotation, overridden by {@link AliasFor} attributes of each annotation on the path, nearest wins.
+ * Annotations of {@code java.lang.annotation} are not followed.
+ * Mirrors are only valid within a round, a graph shared by {@link RoundScope} is dropped at the end of round.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class AnnotationGraph {
+    private static final String ALIAS = AliasFor.class.getCanonicalName();
+    private static final String REPEATABLE = Repeatable.class.getCanonicalName();
+    private final Map<String, Node> nodes = new HashMap<>();
+    /**
+     * depth of current {@link #base(Node, String)} walk
+     */
+    private int depth;
+    /**
+     * lowest depth of resolving nodes reached through a cycle by current walk
+     */
+    private int cut = Integer.MAX_VALUE;
+
+    private final class Node {
+        final TypeElement type;
+        final String name;
+        /**
+         * meta-annotations, excludes java.lang.annotation
+         */
+        final List<AnnotationMirror> metas = new ArrayList<>();
+        /**
+         * attribute -> aliased (annotation, attribute)
+         */
+        final Map<String, String[]> aliases = new HashMap<>();
+        /**
+         * target annotation -> base values, or NONE when target is not reachable
+         */
+        final Map<String, Map<String, AnnotationValue>> resolved = new HashMap<>();
+        /**
+         * qualified name of container declared by {@link java.lang.annotation.Repeatable}, null if not repeatable
+         */
+        String container;
+        /**
+         * depth in current {@link #base(Node, String)} walk, 0 when not resolving
+         */
+        int resolving;
+
+        Node(TypeElement type) {
+            this.type = type;
+            this.name = type.getQualifiedName().toString();
+            for (var m : type.getAnnotationMirrors()) {
+                var n = name(m);
+                if (n.equals(REPEATABLE)) {
+                    for (var v : m.getElementValues().values()) {
+                        if (v.getValue() instanceof DeclaredType)
+                            container = ((TypeElement) ((DeclaredType) v.getValue()).asElement()).getQualifiedName().toString();
+                    }
+                }
+                if (!n.startsWith("java.lang.annotation.") && !n.equals(name)) metas.add(m);
+            }
+            for (var method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                for (var m : method.getAnnotationMirrors()) {
+                    if (!name(m).equals(ALIAS)) continue;
+                    String annotation = null;
+                    var attribute = method.getSimpleName().toString();
+                    for (var e : m.getElementValues().entrySet()) {
+                        var key = e.getKey().getSimpleName().toString();
+                        var v = e.getValue().getValue();
+                        if (key.equals("annotation") && v instanceof DeclaredType)
+                            annotation = ((TypeElement) ((DeclaredType) v).asElement()).getQualifiedName().toString();
+                        else if (key.equals("attribute") && !v.toString().isEmpty()) attribute = v.toString();
+                    }
+                    if (annotation != null && !annotation.equals(name))
+                        aliases.put(method.getSimpleName().toString(), new String[]{annotation, attribute});
+                }
+            }
+        }
+    }
+
+    private static final Map<String, AnnotationValue> NONE = Collections.emptyMap();
+
+    private static String name(AnnotationMirror m) {
+        return ((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private Node node(TypeElement type) {
+        var n = nodes.get(type.getQualifiedName().toString());
+        if (n == null) {
+            n = new Node(type);
+            nodes.put(n.name, n);
+        }
+        return n;
+    }
+
+    /**
+     * @param mirror an annotation on an element
+     * @param target qualified name of meta-annotation
+     * @return merged values of target, null if target is not the annotation itself nor a meta-annotation of it
+     */
+    public AnnotatedMirror resolve(AnnotationMirror mirror, String target) {
+        var type = (TypeElement) mirror.getAnnotationType().asElement();
+        var node = node(type);
+        if (node.name.equals(target)) return new AnnotatedMirror(mirror);
+        var base = base(node, target);
+        if (base == null) return null;
+        var values = new HashMap<>(base);
+        override(node, mirror, target, values);
+        return new AnnotatedMirror(targetType(node, target), values);
+    }
+
+    /**
+     * @return is target the annotation type itself or a meta-annotation of it
+     */
+    public boolean reaches(TypeElement annotationType, String target) {
+        var node = node(annotationType);
+        return node.name.equals(target) || base(node, target) != null;
+    }
+
+    /**
+     * results depending on a node still being resolved (a cycle cut above this node) are not memoized,
+     * they are recomputed once the walk reaches the node from outside of the cycle.
+     *
+     * @return values of target declared along the meta path from node, without use site values. null if not reachable.
+     */
+    private Map<String, AnnotationValue> base(Node node, String target) {
+        var r = node.resolved.get(target);
+        if (r != null) return r == NONE ? null : r;
+        if (node.resolving > 0) { //cyclic meta-annotations
+            cut = Math.min(cut, node.resolving);
+            return null;
+        }
+        var outer = cut;
+        cut = Integer.MAX_VALUE;
+        node.resolving = ++depth;
+        try {
+            Map<String, AnnotationValue> found = null;
+            for (var m : node.metas) {
+                var meta = node((TypeElement) m.getAnnotationType().asElement());
+                if (meta.name.equals(target)) {
+                    found = new HashMap<>();
+                    for (var e : m.getElementValues().entrySet()) found.put(e.getKey().getSimpleName().toString(), e.getValue());
+                    break;
+                }
+                var sub = base(meta, target);
+                if (sub != null) {
+                    found = new HashMap<>(sub);
+                    override(meta, m, target, found);
+                    break;
+                }
+            }
+            if (cut >= node.resolving) node.resolved.put(target, found == null ? NONE : found);
+            return found;
+        } finally {
+            depth--;
+            node.resolving = 0;
+            cut = Math.min(outer, cut);
+        }
+    }
+
+    /**
+     * put explicit values of mirror (of node type) which are aliased to target.
+     */
+    private void override(Node node, AnnotationMirror mirror, String target, Map<String, AnnotationValue> values) {
+        if (node.aliases.isEmpty()) return;
+        for (var e : mirror.getElementValues().entrySet()) {
+            var attribute = alias(node, e.getKey().getSimpleName().toString(), target, 0);
+            if (attribute != null) values.put(attribute, e.getValue());
+        }
+    }
+
+    /**
+     * @return attribute of target aliased by attribute of node, follows alias chain. null if not aliased.
+     */
+    private String alias(Node node, String attribute, String target, int depth) {
+        var a = node.aliases.get(attribute);
+        if (a == null || depth > 16) return null;
+        if (a[0].equals(target)) return a[1];
+        var next = nodes.get(a[0]);
+        return next == null ? null : alias(next, a[1], target, depth + 1);
+    }
+
+    /**
+     * the node of target is created by {@link #base(Node, String)} once it is reached
+     */
+    private TypeElement targetType(Node node, String target) {
+        var t = nodes.get(target);
+        if (t == null) throw new IllegalStateException(target + " not reachable from " + node.name);
+        return t.type;
+    }
+
+    /**
+     * @param container an annotation
+     * @param type      qualified name of repeatable annotation
+     * @return annotations of type held by container, empty if container is not the declared container of type
+     */
+    public List<AnnotationMirror> repeated(AnnotationMirror container, String type) {
+        var r = repeated(container);
+        return r.isEmpty() || !name(r.get(0)).equals(type) ? Collections.emptyList() : r;
+    }
+
+    /**
+     * @param container an annotation
+     * @return annotations held by container, empty if container is not the declared container of a repeatable annotation
+     */
+    public List<AnnotationMirror> repeated(AnnotationMirror container) {
+        for (var e : container.getElementValues().entrySet()) {
+            if (!e.getKey().getSimpleName().contentEquals("value")) continue;
+            var v = e.getValue().getValue();
+            if (!(v instanceof List) || ((List<?>) v).isEmpty()) break;
+            var first = ((AnnotationValue) ((List<?>) v).get(0)).getValue();
+            if (!(first instanceof AnnotationMirror)) break;
+            var item = node((TypeElement) ((AnnotationMirror) first).getAnnotationType().asElement());
+            if (!name(container).equals(item.container)) break;
+            var r = new ArrayList<AnnotationMirror>(((List<?>) v).size());
+            for (var x : (List<?>) v) r.add((AnnotationMirror) ((AnnotationValue) x).getValue());
+            return r;
+        }
+        return Collections.emptyList();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return approximate retained bytes, a rough estimate like {@link RoundScope.Owned#footprint()}
+     */
+    public long footprint() {
+        long n = 48;
+        for (var node : nodes.values()) n += 96 + node.metas.size() * 8L + node.aliases.size() * 48L + node.resolved.size() * 64L;
+        return n;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementScanner8;
+import javax.lang.model.util.Elements;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.util.*;
+
+/**
+ * Round-wide inverted index of annotations: annotation qualified name to annotated elements,
+ * built by one pass over root elements from {@link AnnotationMirror}s, without annotation proxies.
+ * <p>
+ * Same semantic as {@link Utils#exists(Element, Class[])} and {@link Utils#anyOf(Element, Class[])}:
+ * declaration annotations, plus annotations of parameters and type-use annotations of return type for executables.
+ * Repeated annotations in their declared container are indexed by their own type (see {@link AnnotationGraph#repeated(AnnotationMirror)}),
+ * {@link Inherited} annotations are looked up on super classes.
+ * Elements not scanned (outside of the root elements, enclosed by a root package, type parameters) fall back to read mirrors directly.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class AnnotationIndex {
+    private final Elements elements;
+    private final AnnotationGraph graph;
+    private final Set<Element> roots;
+    /**
+     * annotation -> elements with declaration annotation
+     */
+    private final Map<String, Set<Element>> declared = new HashMap<>();
+    /**
+     * annotation -> elements with declaration annotation, executables also with annotated parameters or type-use annotated return type.
+     */
+    private final Map<String, Set<Element>> related = new HashMap<>();
+    /**
+     * annotation type -> is inherited
+     */
+    private final Map<String, Boolean> inherited = new HashMap<>();
+
+    private AnnotationIndex(Elements elements, AnnotationGraph graph, Set<? extends Element> roots) {
+        this.elements = elements;
+        this.graph = graph;
+        this.roots = new HashSet<>(roots);
+    }
+
+    /**
+     * @param elements element utils
+     * @param roots    root elements of a round
+     * @return index of the root elements and all their enclosed elements
+     */
+    public static AnnotationIndex of(Elements elements, Set<? extends Element> roots) {
+        return of(elements, new AnnotationGraph(), roots);
+    }
+
+    /**
+     * @param elements element utils
+     * @param graph    annotation graph of the round, eg: {@link RoundScope#graph()}
+     * @param roots    root elements of a round
+     * @return index of the root elements and all their enclosed elements
+     */
+    public static AnnotationIndex of(Elements elements, AnnotationGraph graph, Set<? extends Element> roots) {
+        var index = new AnnotationIndex(elements, graph, roots);
+        var scanner = index.new Scanner();
+        for (var root : roots) scanner.scan(root, null);
+        return index;
+    }
+
+    private final class Scanner extends ElementScanner8<Void, Void> {
+        @Override
+        public Void scan(Element e, Void unused) {
+            for (var m : e.getAnnotationMirrors()) declare(m, e);
+            if (e.getKind() == ElementKind.METHOD || e.getKind() == ElementKind.CONSTRUCTOR) {
+                for (var m : ((ExecutableElement) e).getReturnType().getAnnotationMirrors()) relate(m, e);
+            }
+            if (e.getKind() == ElementKind.PACKAGE) return null; //enclosed elements of a package are not all roots
+            return super.scan(e, unused);
+        }
+
+        @Override
+        public Void visitVariable(VariableElement e, Void unused) {
+            if (e.getKind() == ElementKind.PARAMETER) {
+                var owner = e.getEnclosingElement();
+                for (var m : e.getAnnotationMirrors()) relate(m, owner);
+            }
+            return super.visitVariable(e, unused);
+        }
+    }
+
+    private void declare(AnnotationMirror m, Element e) {
+        put(declared, name(m), e);
+        for (var r : graph.repeated(m)) put(declared, name(r), e);
+        relate(m, e);
+    }
+
+    /**
+     * relate annotation and annotations held by it as container
+     */
+    private void relate(AnnotationMirror m, Element e) {
+        put(related, name(m), e);
+        for (var r : graph.repeated(m)) put(related, name(r), e);
+    }
+
+    private static void put(Map<String, Set<Element>> map, String name, Element e) {
+        map.computeIfAbsent(name, k -> new HashSet<>()).add(e);
+    }
+
+    private static String name(AnnotationMirror m) {
+        return ((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static boolean hasMeta(TypeElement annotationType, Class<? extends Annotation> meta) {
+        for (var m : annotationType.getAnnotationMirrors()) {
+            if (name(m).equals(meta.getCanonicalName())) return true;
+        }
+        return false;
+    }
+
+    private boolean inherited(String name) {
+        return inherited.computeIfAbsent(name, k -> {
+            var type = elements.getTypeElement(k);
+            return type != null && hasMeta(type, Inherited.class);
+        });
+    }
+
+    /**
+     * @return approximate retained bytes, a rough estimate like {@link RoundScope.Owned#footprint()}
+     */
+    public long footprint() {
+        long n = 64 + roots.size() * 40L + inherited.size() * 48L;
+        for (var s : declared.values()) n += 96 + s.size() * 40L;
+        for (var s : related.values()) n += 96 + s.size() * 40L;
+        return n;
+    }
+
+    /**
+     * @return is element scanned: a root or enclosed by a root type, enclosed elements of a root package are not scanned.
+     */
+    public boolean covers(Element element) {
+        if (element.getKind() == ElementKind.TYPE_PARAMETER) return false;
+        for (var e = element; e != null; e = e.getEnclosingElement()) {
+            if (roots.contains(e)) return true;
+            if (e instanceof PackageElement) return false;
+        }
+        return false;
+    }
+
+    /**
+     * @param name qualified name of annotation
+     * @return elements directly annotated in this round, never null
+     */
+    public Set<Element> annotated(String name) {
+        var s = declared.get(name);
+        return s == null ? Collections.emptySet() : Collections.unmodifiableSet(s);
+    }
+
+    public Set<Element> annotated(Class<? extends Annotation> type) {
+        return annotated(type.getCanonicalName());
+    }
+
+    /**
+     * @param element target
+     * @param type    annotation
+     * @return annotation exists on element/parameter/type-use, same as {@link Utils#exists(Element, Class[])}
+     */
+    @SafeVarargs
+    public final boolean exists(Element element, Class<? extends Annotation>... type) {
+        if (!covers(element)) return Utils.exists(element, type);
+        for (var a : type) {
+            if (has(related, a.getCanonicalName(), element)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param element target
+     * @param type    annotations
+     * @return type of first founded annotation on target, same order as {@link Utils#anyOf(Element, Class[])}
+     */
+    @SafeVarargs
+    public final Class<? extends Annotation> firstOf(Element element, Class<? extends Annotation>... type) {
+        if (!covers(element)) {
+            for (var a : type) {
+                if (element.getAnnotation(a) != null) return a;
+            }
+            return null;
+        }
+        for (var a : type) {
+            if (has(declared, a.getCanonicalName(), element)) return a;
+        }
+        return null;
+    }
+
+    /**
+     * @param element target
+     * @param type    annotations
+     * @return first founded annotation on target, only the found one is created as proxy.
+     */
+    @SafeVarargs
+    public final Annotation anyOf(Element element, Class<? extends Annotation>... type) {
+        var found = firstOf(element, type);
+        return found == null ? null : element.getAnnotation(found);
+    }
+
+    private boolean has(Map<String, Set<Element>> map, String name, Element element) {
+        var s = map.get(name);
+        if (s != null && s.contains(element)) return true;
+        if (!(element instanceof TypeElement) || !inherited(name)) return false;
+        //inherited annotation on super classes
+        var sup = ((TypeElement) element).getSuperclass();
+        while (sup.getKind() == TypeKind.DECLARED) {
+            var t = ((DeclaredType) sup).asElement();
+            if (covers(t)) {
+                if (s != null && s.contains(t)) return true;
+            } else {
+                for (var m : t.getAnnotationMirrors()) {
+                    if (name(m).equals(name)) return true;
+                }
+            }
+            sup = ((TypeElement) t).getSuperclass();
+        }
+        return false;
+    }
+}
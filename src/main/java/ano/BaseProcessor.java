@@ -18,7 +18,6 @@ package ano;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import lombok.var;
-import ref.Ref;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -28,13 +27,22 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 import java.time.Instant;
-import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * @author Zen.Liu
@@ -60,17 +68,82 @@ public abstract class BaseProcessor<T extends Annotation, E extends Element> ext
     }
 
     private boolean disabled;
+    /**
+     * compile time accounting, null when not profiling.
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private Timings timings;
+
+    /**
+     * current round
+     */
+    private RoundEnvironment round;
+    private AnnotationIndex annotationIndex;
+    private final RoundScope scope = new RoundScope();
+    /**
+     * element -> located mirror of current round, see {@link #mirrorOf(Element)}
+     */
+    private final Map<Element, AnnotatedMirror> mirrors = new IdentityHashMap<>();
+    private int rounds;
+    private boolean footprint;
+    /**
+     * filter of targets by package and element kind, from options include, exclude and kinds.
+     */
+    private TargetFilter filter = TargetFilter.ALL;
+    private StateStore state;
+    /**
+     * time budget, null when not configured.
+     */
+    private Budget budget;
+    private boolean roundAborted;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         filer = processingEnv.getFiler();
         disabled = processingEnv.getOptions().getOrDefault("disabled", "").contains(this.getClass().getSimpleName());
+        footprint = processingEnv.getOptions().containsKey("footprint");
+        state = new StateStore(processingEnv.getElementUtils(), processingEnv.getTypeUtils(), stateCapacity());
+        var options = processingEnv.getOptions();
+        try {
+            filter = TargetFilter.of(options.get("include"), options.get("exclude"), options.get("kinds"));
+        } catch (IllegalArgumentException e) {
+            error("invalid option kinds of {}: {}", this.getClass().getCanonicalName(), e.getMessage());
+        }
+        if (options.containsKey("budget") || options.containsKey("roundbudget")) {
+            try {
+                budget = new Budget(this.getClass().getCanonicalName(),
+                        Long.parseLong(options.getOrDefault("budget", "0").trim()),
+                        Long.parseLong(options.getOrDefault("roundbudget", "0").trim()),
+                        options.containsKey("budgetabort"));
+            } catch (NumberFormatException e) {
+                error("invalid option budget of {}: {}", this.getClass().getCanonicalName(), e.getMessage());
+            }
+        }
+        if (options.containsKey("profile")) {
+            try {
+                timings = TimingPlugin.attach(processingEnv, this::note);
+            } catch (LinkageError | IllegalArgumentException e) {
+                //compiler API not available or not javac
+                timings = Timings.of(processingEnv);
+            }
+        }
     }
 
     @Override
     public Set<String> getSupportedOptions() {
-        return Collections.singleton("disabled");
+        Set<String> options = new LinkedHashSet<>();
+        options.add("disabled");
+        options.add("profile");
+        options.add("footprint");
+        options.add("include");
+        options.add("exclude");
+        options.add("kinds");
+        options.add("budget");
+        options.add("roundbudget");
+        options.add("budgetabort");
+        return options;
     }
 
     @Override
@@ -89,20 +162,205 @@ public abstract class BaseProcessor<T extends Annotation, E extends Element> ext
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         if (disabled) return false;
-        var targets = roundEnv.getElementsAnnotatedWith(annotationType);
+        var begin = timings == null ? 0 : System.nanoTime();
+        try {
+            var skip = processRound(roundEnv);
+            if (!roundEnv.processingOver()) afterRound();
+            return skip;
+        } finally {
+            if (timings != null) {
+                timings.processor(this.getClass().getCanonicalName(), System.nanoTime() - begin);
+                if (roundEnv.processingOver() && !timings.listened() && timings.reportOnce())
+                    note(timings.report());
+            }
+            if (budget != null) {
+                if (budget.roundExceeded()) overBudget("round", budget.roundNanos(), null);
+                if (roundEnv.processingOver()) {
+                    var report = budget.report();
+                    if (report != null) note(report);
+                    budget.close();
+                }
+            }
+            endRound(roundEnv.processingOver());
+        }
+    }
+
+    /**
+     * release round scoped objects, clear state and drop doc comments of the environment when processing is over.
+     */
+    private void endRound(boolean over) {
+        rounds++;
+        if (footprint) {
+            note("{} footprint of round {}: {} scoped objects ~{} bytes, annotation index ~{} bytes",
+                    this.getClass().getCanonicalName(), rounds, scope.size(), scope.footprint(),
+                    annotationIndex == null ? 0 : annotationIndex.footprint());
+        }
+        scope.release();
+        mirrors.clear();
+        annotationIndex = null;
+        round = null;
+        state.nextRound();
+        if (over) {
+            state.clear();
+            DocComments.remove(processingEnv);
+        }
+    }
+
+    private boolean processRound(RoundEnvironment roundEnv) {
+        round = roundEnv;
+        annotationIndex = null;
+        roundAborted = false;
+        if (budget != null) budget.beginRound();
+        DocComments.of(processingEnv).round(roundEnv);
+        if (roundEnv.processingOver()) {
+            finish();
+            return false;
+        }
+        var targets = targets(roundEnv);
         if (targets.isEmpty()) return false;
+        if (batch()) {
+            var groups = new LinkedHashMap<PackageElement, Map<E, T>>();
+            for (var ele : targets) {
+                if (elementType.isInstance(ele)) {
+                    var pkg = packageOf(ele);
+                    if (!filter.accept(ele, pkg)) continue;
+                    var type = elementType.cast(ele);
+                    T anno = null;
+                    if (mirrorOnly()) {
+                        if (!predicateMirror(type, mirrorOf(type))) continue;
+                    } else {
+                        anno = type.getAnnotation(annotationType);
+                        if (!predicate(type, anno)) continue;
+                    }
+                    groups.computeIfAbsent(pkg, k -> new LinkedHashMap<>()).put(type, anno);
+                }
+            }
+            return !groups.isEmpty() && procGroups(groups);
+        }
         var skipNextProcessor = false;
         for (var ele : targets) {
+            if (roundAborted) break;
             if (elementType.isInstance(ele)) {
+                if (!filter.all() && !filter.accept(ele, packageOf(ele))) continue;
                 var type = elementType.cast(ele);
+                if (mirrorOnly()) {
+                    var mirror = mirrorOf(type);
+                    if (!predicateMirror(type, mirror)) continue;
+                    skipNextProcessor = procElement(type, null, mirror);
+                    continue;
+                }
                 var anno = type.getAnnotation(annotationType);
                 if (!predicate(type, anno)) continue;
-                skipNextProcessor = proc(type, anno);
+                skipNextProcessor = procElement(type, anno, null);
             }
         }
         return skipNextProcessor;
     }
 
+    /**
+     * process one element, accounted by {@link Budget} when configured.
+     */
+    private boolean procElement(E type, T anno, AnnotatedMirror mirror) {
+        return withBudget(type, () -> mirrorOnly() ? procMirror(type, mirror) : proc(type, anno));
+    }
+
+    /**
+     * run work accounted by {@link Budget} as the element when configured: it is watched, reported when over budget,
+     * and aborted with an error on {@code budgetabort}. skipped when the round was aborted.
+     *
+     * @param element element of the work, eg: a target, or the package of a batch
+     * @param work    the work
+     * @return result of work, false when aborted or skipped
+     */
+    protected final boolean withBudget(Element element, BooleanSupplier work) {
+        if (budget == null) return work.getAsBoolean();
+        if (roundAborted) return false;
+        var aborted = false;
+        budget.begin(element);
+        try {
+            return work.getAsBoolean();
+        } catch (Budget.ExceededException e) {
+            aborted = true;
+            error("{}", e.getMessage(), element);
+            return false;
+        } catch (Exception e) {
+            //failed by the interrupt of watchdog
+            if (!budget.interrupted()) throw e;
+            return false;
+        } finally {
+            var nanos = budget.end(element);
+            if (!aborted && budget.interrupted())
+                error("{} aborted {} after {} ms", this.getClass().getCanonicalName(), element, nanos / 1_000_000, element);
+            else if (!aborted && budget.elementExceeded(nanos)) overBudget("element", nanos, element);
+            if (budget.roundExceeded()) {
+                overBudget("round", budget.roundNanos(), element);
+                roundAborted = budget.abort();
+            }
+        }
+    }
+
+    private void overBudget(String what, long nanos, Element element) {
+        var kind = budget.abort() ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING;
+        var msg = this.getClass().getCanonicalName() + " spent " + nanos / 1_000_000 + " ms, over budget of " + what;
+        log(kind, element == null ? msg : msg + " at " + element, element, null, null);
+    }
+
+    /**
+     * cooperative check of time budget for long running code, eg: recursion over generic types.
+     * aborts processing of current element with an error when out of budget and option {@code budgetabort} is set.
+     * also checked by {@link #mirrorOf(Element)} and file writing of generators.
+     */
+    protected void checkBudget() {
+        if (budget != null) budget.check();
+    }
+
+    /**
+     * @return arena of current round, owned objects are released at the end of round.
+     */
+    protected RoundScope scope() {
+        return scope;
+    }
+
+    /**
+     * @return store of state across rounds, cleared after {@link #finish()}.
+     */
+    protected StateStore state() {
+        return state;
+    }
+
+    /**
+     * @return max entries of {@link #state()}, least recently used entries are evicted. not positive for unbounded.
+     */
+    protected int stateCapacity() {
+        return 0;
+    }
+
+    /**
+     * @return annotation index of current round, built on first use.
+     */
+    protected AnnotationIndex annotationIndex() {
+        if (annotationIndex == null) {
+            if (round == null) throw new IllegalStateException("not in processing round");
+            annotationIndex = AnnotationIndex.of(processingEnv.getElementUtils(), scope.graph(), round.getRootElements());
+        }
+        return annotationIndex;
+    }
+
+    /**
+     * optional method to select elements of a round, default are elements annotated with {@link #annotationType}.
+     * the annotation passed to processing methods is null for elements not annotated with {@link #annotationType}.
+     */
+    protected Set<? extends Element> targets(RoundEnvironment roundEnv) {
+        return roundEnv.getElementsAnnotatedWith(annotationType);
+    }
+
+    /**
+     * @return filter of targets from options include, exclude and kinds, applied before {@link #predicate(Element, Annotation)}.
+     */
+    protected TargetFilter filter() {
+        return filter;
+    }
+
     /**
      * optional post filter method.
      */
@@ -110,6 +368,116 @@ public abstract class BaseProcessor<T extends Annotation, E extends Element> ext
         return true;
     }
 
+    /**
+     * optional post filter method of mirror only mode ({@link MirrorProcessor}, {@link MirrorGenerator}).
+     */
+    protected boolean predicateMirror(E element, AnnotatedMirror mirror) {
+        return true;
+    }
+
+    /**
+     * mirror only mode, only enabled by {@link MirrorProcessor} and {@link MirrorGenerator} which implement {@link #procMirror(Element, AnnotatedMirror)}.
+     *
+     * @return true to process targets by {@link #procMirror(Element, AnnotatedMirror)} with the annotation mirror located on the element,
+     * the annotation proxy is never created, so no {@link javax.lang.model.type.MirroredTypeException} and no reflection on values.
+     * in {@link #batch()} mode, the annotations of groups are null.
+     */
+    boolean mirrorOnly() {
+        return false;
+    }
+
+    /**
+     * process a single element in mirror only mode, implemented by {@link MirrorProcessor} and {@link MirrorGenerator}.
+     */
+    boolean procMirror(E type, AnnotatedMirror mirror) {
+        throw new IllegalStateException(this.getClass().getCanonicalName() + " is not in mirror only mode");
+    }
+
+    /**
+     * @param element the element
+     * @return mirror of {@link #annotationType} on element or inherited from super classes, owned by {@link #scope()}.
+     * null if not present. memoized in the round, the mirror is located once per element.
+     */
+    protected AnnotatedMirror mirrorOf(Element element) {
+        checkBudget();
+        var found = mirrors.get(element);
+        if (found != null || mirrors.containsKey(element)) return found;
+        found = locate(element);
+        mirrors.put(element, found);
+        return found;
+    }
+
+    private AnnotatedMirror locate(Element element) {
+        var name = annotationType.getCanonicalName();
+        var e = element;
+        while (true) {
+            for (var m : e.getAnnotationMirrors()) {
+                if (((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+                    return scope.mirror(m);
+            }
+            //only types inherit annotations, checked by javac when the annotation is targeted by the round
+            if (!(e instanceof TypeElement) || annotationType.getAnnotation(Inherited.class) == null) return null;
+            var sup = ((TypeElement) e).getSuperclass();
+            if (sup.getKind() != TypeKind.DECLARED) return null;
+            e = ((DeclaredType) sup).asElement();
+        }
+    }
+
+    /**
+     * @return true to process all targets of a round at once by {@link #procGroups(Map)}, instead of {@link #proc(Element, Annotation)} per element.
+     */
+    protected boolean batch() {
+        return false;
+    }
+
+    /**
+     * process all filtered targets of a round, only called when {@link #batch()}. default calls {@link #proc(Element, Annotation)} for each element.
+     *
+     * @param groups targets grouped by package, in order of the round
+     * @return dose skip next processors
+     */
+    protected boolean procGroups(Map<PackageElement, Map<E, T>> groups) {
+        var skipNextProcessor = false;
+        for (var group : groups.values()) {
+            for (var e : group.entrySet()) {
+                if (roundAborted) return skipNextProcessor;
+                skipNextProcessor = procElement(e.getKey(), e.getValue(), mirrorOnly() ? mirrorOf(e.getKey()) : null);
+            }
+        }
+        return skipNextProcessor;
+    }
+
+    /**
+     * optional method called at the end of each round before the last one, eg: write files collected in the round.
+     * files written here are still processed by javac in the next round, files written in {@link #finish()} are not.
+     */
+    protected void afterRound() {
+    }
+
+    /**
+     * optional method called once at the last round, when processing is over.
+     */
+    protected void finish() {
+    }
+
+    /**
+     * read a resource of class output written by a previous compilation, to merge with the output of an incremental build.
+     *
+     * @param path resource path, eg: {@code META-INF/services/a.b.Service}
+     * @return content, null if not exists
+     */
+    protected String readOutput(String path) {
+        try (var r = filer.getResource(StandardLocation.CLASS_OUTPUT, "", path).openReader(true)) {
+            var b = new StringBuilder();
+            var buf = new char[4096];
+            for (var n = r.read(buf); n > 0; n = r.read(buf)) b.append(buf, 0, n);
+            return b.toString();
+        } catch (IOException | IllegalArgumentException e) {
+            //not exists
+            return null;
+        }
+    }
+
     /**
      * override this method for process a single annotated element.
      *
@@ -124,14 +492,14 @@ public abstract class BaseProcessor<T extends Annotation, E extends Element> ext
     @Override
     public void log(Diagnostic.Kind kind, String msg, Element element, AnnotationMirror a, AnnotationValue v) {
         var m = processingEnv.getMessager();
-        if (element != null)
-            if (a != null)
-                if (v != null)
-                    m.printMessage(kind, msg, element, a, v);
-                else
-                    m.printMessage(kind, msg, element, a);
-            else
-                m.printMessage(kind, msg);
+        if (element == null)
+            m.printMessage(kind, msg);
+        else if (a == null)
+            m.printMessage(kind, msg, element);
+        else if (v == null)
+            m.printMessage(kind, msg, element, a);
+        else
+            m.printMessage(kind, msg, element, a, v);
     }
     //endregion
 
@@ -150,15 +518,8 @@ public abstract class BaseProcessor<T extends Annotation, E extends Element> ext
     public CharSequence generatedAnnotationBy() {
         var s = new StringBuilder();
         s.append("//Generated Source should not modified!!");
-        if (Ref.$.version >= 9) {
-            s.append("@javax.annotation.processing.Generated")
-                    .append("(")
-                    .append("value=\"").append(this.getClass().getCanonicalName()).append("\",")
-                    .append("date=").append(Instant.now().toString())
-                    .append(")");
-
-        } else if (Ref.$.version >= 6) {
-            s.append("@javax.annotation.Generated")
+        if (Platform.GENERATED != null) {
+            s.append('@').append(Platform.GENERATED)
                     .append("(")
                     .append("value=\"").append(this.getClass().getCanonicalName()).append("\",")
                     .append("date=").append(Instant.now().toString())
@@ -0,0 +1,314 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Binder from {@link AnnotatedMirror} to a POJO, built once per target class.
+ * <p>
+ * With a no-arg constructor, non-static non-transient fields (including super classes) are bound by name.
+ * Otherwise the constructor with most parameters is used, which requires parameter names (javac {@code -parameters}).
+ * In both modes members are bound with values including defaults of the annotation,
+ * fields without a member keep the initializer, parameters without a member are null or zero.
+ * <p>
+ * Slots and converted defaults are resolved once per annotation type, binding walks the explicit values once;
+ * defaults holding javac objects (types, elements, annotations) are read from the member on use.
+ * <p>
+ * Supported types: primitives and boxes, String, enums, {@link VariableElement}, {@link TypeMirror},
+ * {@link AnnotationMirror}, {@link AnnotatedMirror}, nested POJO from annotation, arrays and {@link List} of those.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+final class Binder<C> {
+    private static final ClassValue<Binder<?>> binders = new ClassValue<Binder<?>>() {
+        @Override
+        protected Binder<?> computeValue(Class<?> type) {
+            return new Binder<>(type);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    static <C> Binder<C> of(Class<C> type) {
+        return (Binder<C>) binders.get(type);
+    }
+
+    private final Class<C> type;
+    private final Constructor<C> constructor;
+    private final boolean byFields;
+    /**
+     * member -> slot
+     */
+    private final Map<String, Slot> slots = new HashMap<>();
+    /**
+     * annotation qualified name -> plan, holds no javac reference
+     */
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+
+    private static final class Slot {
+        /**
+         * field, null when bind by constructor
+         */
+        final Field field;
+        /**
+         * parameter index, -1 when bind by fields
+         */
+        final int index;
+        final Function<Object, Object> converter;
+
+        Slot(Field field, int index, Function<Object, Object> converter) {
+            this.field = field;
+            this.index = index;
+            this.converter = converter;
+        }
+    }
+
+    /**
+     * slots aligned with members of an annotation type in declared order
+     */
+    private static final class Plan {
+        /**
+         * the annotation type, weak: a plan of a finished compilation pins no javac object
+         */
+        final WeakReference<TypeElement> annotation;
+        /**
+         * slot of each member, null when the member is not bound
+         */
+        final Slot[] slots;
+        /**
+         * member name -> index
+         */
+        final Map<String, Integer> index;
+        /**
+         * converted default of each member: null if none, {@link #LAZY} when the default holds javac objects
+         */
+        final Object[] defaults;
+        final boolean lazy;
+
+        Plan(TypeElement annotation, Slot[] slots, Map<String, Integer> index, Object[] defaults, boolean lazy) {
+            this.annotation = new WeakReference<>(annotation);
+            this.slots = slots;
+            this.index = index;
+            this.defaults = defaults;
+            this.lazy = lazy;
+        }
+    }
+
+    private static final Object LAZY = new Object();
+
+    @SuppressWarnings("unchecked")
+    private Binder(Class<C> type) {
+        this.type = type;
+        Constructor<C> noArg = null;
+        Constructor<C> most = null;
+        for (var c : type.getDeclaredConstructors()) {
+            if (c.getParameterCount() == 0) noArg = (Constructor<C>) c;
+            else if (most == null || c.getParameterCount() > most.getParameterCount()) most = (Constructor<C>) c;
+        }
+        if (noArg != null) {
+            constructor = noArg;
+            byFields = true;
+            for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+                for (var f : t.getDeclaredFields()) {
+                    var mod = f.getModifiers();
+                    if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || f.isSynthetic()) continue;
+                    if (slots.containsKey(f.getName())) continue;
+                    f.setAccessible(true);
+                    slots.put(f.getName(), new Slot(f, -1, converter(f.getType(), f.getGenericType())));
+                }
+            }
+        } else if (most != null) {
+            constructor = most;
+            byFields = false;
+            var ps = most.getParameters();
+            for (var i = 0; i < ps.length; i++) {
+                if (!ps[i].isNamePresent())
+                    throw new IllegalStateException("parameter names of " + most + " not present, compile with -parameters or provide a no-arg constructor");
+                slots.put(ps[i].getName(), new Slot(null, i, converter(ps[i].getType(), ps[i].getParameterizedType())));
+            }
+        } else throw new IllegalStateException("no constructor found for " + type);
+        constructor.setAccessible(true);
+    }
+
+    /**
+     * @return plan of the annotation, rebuilt for another annotation type element (eg: a new compilation in a long running compiler)
+     */
+    private Plan plan(String annotation, TypeElement annotationType) {
+        var plan = plans.get(annotation);
+        if (plan != null && plan.annotation.get() == annotationType) return plan;
+        var members = ElementFilter.methodsIn(annotationType.getEnclosedElements());
+        var ss = new Slot[members.size()];
+        var index = new HashMap<String, Integer>(ss.length * 2);
+        var defaults = new Object[ss.length];
+        var lazy = false;
+        for (var i = 0; i < ss.length; i++) {
+            var name = members.get(i).getSimpleName().toString();
+            ss[i] = slots.get(name);
+            index.put(name, i);
+            var def = members.get(i).getDefaultValue();
+            if (ss[i] == null || def == null) continue;
+            var v = ss[i].converter.apply(def.getValue());
+            defaults[i] = detached(v) ? v : LAZY;
+            lazy |= defaults[i] == LAZY;
+        }
+        plan = new Plan(annotationType, ss, index, defaults, lazy);
+        plans.put(annotation, plan);
+        return plan;
+    }
+
+    /**
+     * @return value holds no javac object, can be kept in a plan
+     */
+    private static boolean detached(Object v) {
+        if (v == null || v instanceof String || v instanceof Number || v instanceof Boolean
+                || v instanceof Character || v instanceof Enum) return true;
+        if (v instanceof List) {
+            for (var x : (List<?>) v) if (!detached(x)) return false;
+            return true;
+        }
+        if (v.getClass().isArray()) {
+            if (v.getClass().getComponentType().isPrimitive()) return true;
+            for (var i = 0; i < Array.getLength(v); i++) if (!detached(Array.get(v, i))) return false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a copy of mutable cached defaults
+     */
+    private static Object copy(Object v) {
+        if (v instanceof List) return new ArrayList<>((List<?>) v);
+        if (v != null && v.getClass().isArray()) {
+            var n = Array.getLength(v);
+            var a = Array.newInstance(v.getClass().getComponentType(), n);
+            System.arraycopy(v, 0, a, 0, n);
+            return a;
+        }
+        return v;
+    }
+
+    /**
+     * explicit values are walked once, the other bound members take cached defaults.
+     */
+    @SneakyThrows
+    C bind(AnnotatedMirror mirror) {
+        var annotationType = mirror.annotationType();
+        var plan = plan(mirror.qualifiedName(), annotationType);
+        var c = byFields ? constructor.newInstance() : null;
+        var args = byFields ? null : new Object[constructor.getParameterCount()];
+        var explicit = new boolean[plan.slots.length];
+        for (var e : mirror.values().entrySet()) {
+            var i = plan.index.get(e.getKey());
+            if (i == null) continue;
+            explicit[i] = true;
+            var s = plan.slots[i];
+            if (s != null) set(s, c, args, s.converter.apply(e.getValue().getValue()));
+        }
+        List<ExecutableElement> members = null;
+        for (var i = 0; i < plan.slots.length; i++) {
+            var s = plan.slots[i];
+            var d = plan.defaults[i];
+            if (s == null || explicit[i] || d == null) continue;
+            if (d == LAZY) {
+                if (members == null) members = ElementFilter.methodsIn(annotationType.getEnclosedElements());
+                set(s, c, args, s.converter.apply(members.get(i).getDefaultValue().getValue()));
+            } else set(s, c, args, copy(d));
+        }
+        if (byFields) return c;
+        var ps = constructor.getParameterTypes();
+        for (var i = 0; i < args.length; i++) {
+            if (args[i] == null && ps[i].isPrimitive()) args[i] = Array.get(Array.newInstance(ps[i], 1), 0);
+        }
+        return constructor.newInstance(args);
+    }
+
+    @SneakyThrows
+    private void set(Slot s, Object c, Object[] args, Object x) {
+        if (byFields) s.field.set(c, x);
+        else args[s.index] = x;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> converter(Class<?> raw, Type generic) {
+        if (raw.isArray()) {
+            var component = raw.getComponentType();
+            var element = converter(component, component);
+            return v -> {
+                var l = (List<?>) v;
+                var a = Array.newInstance(component, l.size());
+                for (var i = 0; i < l.size(); i++) Array.set(a, i, element.apply(((AnnotationValue) l.get(i)).getValue()));
+                return a;
+            };
+        }
+        if (List.class.isAssignableFrom(raw) || raw == Collection.class || raw == Iterable.class) {
+            if (!(generic instanceof ParameterizedType))
+                throw new IllegalStateException("type argument of " + generic + " is required");
+            var arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+            var argRaw = arg instanceof ParameterizedType ? (Class<?>) ((ParameterizedType) arg).getRawType() : (Class<?>) arg;
+            var element = converter(argRaw, arg);
+            return v -> {
+                var l = (List<?>) v;
+                var r = new ArrayList<Object>(l.size());
+                for (var x : l) r.add(element.apply(((AnnotationValue) x).getValue()));
+                return r;
+            };
+        }
+        if (raw.isPrimitive() || Number.class.isAssignableFrom(raw)) {
+            var box = raw.isPrimitive() ? Array.get(Array.newInstance(raw, 1), 0).getClass() : raw;
+            if (box == Integer.class) return v -> v instanceof Number ? ((Number) v).intValue() : v;
+            if (box == Long.class) return v -> v instanceof Number ? ((Number) v).longValue() : v;
+            if (box == Short.class) return v -> v instanceof Number ? ((Number) v).shortValue() : v;
+            if (box == Byte.class) return v -> v instanceof Number ? ((Number) v).byteValue() : v;
+            if (box == Float.class) return v -> v instanceof Number ? ((Number) v).floatValue() : v;
+            if (box == Double.class) return v -> v instanceof Number ? ((Number) v).doubleValue() : v;
+            return Function.identity();
+        }
+        if (raw.isEnum()) return v -> Enum.valueOf((Class) raw, ((VariableElement) v).getSimpleName().toString());
+        if (raw == AnnotatedMirror.class) return v -> new AnnotatedMirror((AnnotationMirror) v);
+        if (raw == String.class || raw == Boolean.class || raw == Character.class || raw == Object.class
+                || TypeMirror.class.isAssignableFrom(raw)
+                || VariableElement.class.isAssignableFrom(raw)
+                || AnnotationMirror.class.isAssignableFrom(raw))
+            return Function.identity();
+        return v -> new AnnotatedMirror((AnnotationMirror) v).bind(raw);
+    }
+
+    @Override
+    public String toString() {
+        return "Binder[" + type.getName() + "]";
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of a processor per element and per round, configured by options {@code budget} and {@code roundbudget} in milliseconds.
+ * <p>
+ * Keeps the slowest elements for the final report. A watchdog dumps the stack of the processing thread to stderr
+ * when an element runs out of budget without returning, which points at a hanging generator.
+ * All budgets share one daemon watchdog thread.
+ * <p>
+ * With option {@code budgetabort}, exceeding a budget is an error: {@link #check()} throws, and the watchdog interrupts
+ * the processing thread of an element still running, which stops blocking calls (eg: sleep, wait, interruptible I/O).
+ * A busy loop that never reaches {@link #check()} can not be stopped safely and is only reported.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class Budget {
+    private static final int SLOWEST = 10;
+    private final String owner;
+    private final long element;
+    private final long round;
+    private final boolean abort;
+    /**
+     * slowest elements as names, elements are not kept across rounds
+     */
+    private final PriorityQueue<Slow> slowest = new PriorityQueue<>(Comparator.comparingLong(s -> s.nanos));
+    private long roundBegin;
+    private boolean roundWarned;
+    private volatile Element current;
+    private volatile long currentBegin;
+    private volatile Thread worker;
+    private volatile boolean dumped;
+    /**
+     * watchdog interrupted the worker for current element
+     */
+    private volatile boolean interrupted;
+    private TimerTask watchdog;
+    private static Timer timer;
+
+    private static final class Slow {
+        final String name;
+        final long nanos;
+
+        Slow(String name, long nanos) {
+            this.name = name;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * thrown by {@link #check()} when element is out of budget and abort is enabled.
+     */
+    public static final class ExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public ExceededException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * @param owner   name of processor
+     * @param element milliseconds of each element, not positive for unlimited
+     * @param round   milliseconds of each round, not positive for unlimited
+     * @param abort   fail when exceeded
+     */
+    public Budget(String owner, long element, long round, boolean abort) {
+        this.owner = owner;
+        this.element = element <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(element);
+        this.round = round <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(round);
+        this.abort = abort;
+    }
+
+    public boolean abort() {
+        return abort;
+    }
+
+    void beginRound() {
+        roundBegin = System.nanoTime();
+        roundWarned = false;
+    }
+
+    synchronized void begin(Element e) {
+        if (element > 0 && watchdog == null) startWatchdog();
+        worker = Thread.currentThread();
+        dumped = false;
+        interrupted = false;
+        currentBegin = System.nanoTime();
+        current = e;
+    }
+
+    /**
+     * clears the interrupt of the watchdog, see {@link #interrupted()}.
+     *
+     * @return nanos spent on current element
+     */
+    synchronized long end(Element e) {
+        current = null;
+        if (interrupted) Thread.interrupted();
+        var nanos = System.nanoTime() - currentBegin;
+        if (slowest.size() < SLOWEST || slowest.peek().nanos < nanos) {
+            slowest.add(new Slow(e.toString(), nanos));
+            if (slowest.size() > SLOWEST) slowest.poll();
+        }
+        return nanos;
+    }
+
+    /**
+     * @return last element was interrupted by the watchdog for abort
+     */
+    boolean interrupted() {
+        return interrupted;
+    }
+
+    boolean elementExceeded(long nanos) {
+        return element > 0 && nanos > element;
+    }
+
+    /**
+     * @return round is exceeded first time in this round
+     */
+    boolean roundExceeded() {
+        if (round <= 0 || roundWarned || System.nanoTime() - roundBegin <= round) return false;
+        roundWarned = true;
+        return true;
+    }
+
+    long roundNanos() {
+        return System.nanoTime() - roundBegin;
+    }
+
+    /**
+     * cooperative check for long running generator code, eg: recursion over types.
+     *
+     * @throws ExceededException current element is out of budget and abort is enabled
+     */
+    public void check() {
+        var e = current;
+        if (!abort || e == null || element <= 0) return;
+        var nanos = System.nanoTime() - currentBegin;
+        if (nanos > element || interrupted)
+            throw new ExceededException(owner + " aborted " + e + " after " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+    }
+
+    /**
+     * @return the daemon timer shared by all budgets
+     */
+    private static synchronized Timer timer() {
+        if (timer == null) timer = new Timer("ano-budget", true);
+        return timer;
+    }
+
+    private void startWatchdog() {
+        var period = Math.max(10, TimeUnit.NANOSECONDS.toMillis(element) / 4);
+        watchdog = new TimerTask() {
+            @Override
+            public void run() {
+                var b = new StringBuilder();
+                synchronized (Budget.this) {
+                    var e = current;
+                    var t = worker;
+                    if (e == null || t == null || dumped || System.nanoTime() - currentBegin <= element) return;
+                    dumped = true;
+                    b.append("ano: ").append(owner).append(" is still processing ").append(e)
+                            .append(" after ").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - currentBegin)).append(" ms")
+                            .append(abort ? ", interrupted" : "").append(", at:\n");
+                    for (var s : t.getStackTrace()) b.append("\tat ").append(s).append('\n');
+                    if (abort) {
+                        interrupted = true;
+                        t.interrupt();
+                    }
+                }
+                //Messager is not thread safe, report to stderr
+                System.err.print(b);
+            }
+        };
+        timer().schedule(watchdog, period, period);
+    }
+
+    /**
+     * @return slowest elements, slowest first. null if no element processed.
+     */
+    public String report() {
+        if (slowest.isEmpty()) return null;
+        var all = new ArrayList<>(slowest);
+        all.sort(Comparator.comparingLong((Slow s) -> s.nanos).reversed());
+        var b = new StringBuilder();
+        b.append(owner).append(" slowest elements:");
+        for (var s : all) {
+            b.append("\n  ").append(String.format("%8.2f ms ", s.nanos / 1e6)).append(s.name);
+        }
+        return b.toString();
+    }
+
+    /**
+     * stop watchdog
+     */
+    synchronized void close() {
+        if (watchdog != null) {
+            watchdog.cancel();
+            timer().purge();
+        }
+        watchdog = null;
+        worker = null;
+        current = null;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extra annotations of a ready-made generator configured by a processor option (comma separated qualified names),
+ * elements carrying them are processed as if annotated with the annotation of the generator.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+final class ConfiguredAnnotations {
+    private final String option;
+    private final Set<String> names = new LinkedHashSet<>();
+
+    /**
+     * @param option name of processor option
+     */
+    ConfiguredAnnotations(String option) {
+        this.option = option;
+    }
+
+    void init(Map<String, String> options) {
+        var opt = options.get(option);
+        if (opt == null) return;
+        for (var s : opt.split(",")) {
+            if (!s.trim().isEmpty()) names.add(s.trim());
+        }
+    }
+
+    Set<String> names() {
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * @param supported annotation types supported by the processor
+     * @return supported with configured annotations
+     */
+    Set<String> supported(Set<String> supported) {
+        if (names.isEmpty()) return supported;
+        var annotations = new LinkedHashSet<>(supported);
+        annotations.addAll(names);
+        return annotations;
+    }
+
+    /**
+     * @param targets  targets of the processor
+     * @param roundEnv current round
+     * @param elements element utils
+     * @return targets with elements carrying configured annotations
+     */
+    Set<? extends Element> targets(Set<? extends Element> targets, RoundEnvironment roundEnv, Elements elements) {
+        if (names.isEmpty()) return targets;
+        var all = new LinkedHashSet<Element>(targets);
+        for (var name : names) {
+            var type = elements.getTypeElement(name);
+            if (type == null) continue;
+            all.addAll(roundEnv.getElementsAnnotatedWith(type));
+        }
+        return all;
+    }
+}
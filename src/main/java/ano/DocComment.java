@@ -0,0 +1,192 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.var;
+
+import java.util.*;
+
+/**
+ * Lightweight parsed doc comment: body, summary and block tags.
+ * <p>
+ * Inline tags (eg: {@code {@link ...}}) are kept as they are, {@code {@inheritDoc}} is not resolved.
+ * Holds no javac reference, safe to keep across rounds.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class DocComment {
+    /**
+     * raw text as returned by {@link javax.lang.model.util.Elements#getDocComment}
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final String raw;
+    /**
+     * main description before block tags
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final String body;
+    /**
+     * first sentence of body
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final String summary;
+    /**
+     * {@code @param} tags by name in declared order, type parameters are named as {@code <T>}
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final Map<String, String> params;
+    /**
+     * text of {@code @return}, null if absent
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final String returns;
+    /**
+     * other block tags by name without {@code @}, eg: {@code throws}, {@code since}
+     */
+    @Getter
+    @Accessors(fluent = true)
+    private final Map<String, List<String>> tags;
+
+    private DocComment(String raw, String body, Map<String, String> params, String returns, Map<String, List<String>> tags) {
+        this.raw = raw;
+        this.body = body;
+        this.summary = summary(body);
+        this.params = Collections.unmodifiableMap(params);
+        this.returns = returns;
+        this.tags = Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @param name parameter name
+     * @return text of {@code @param}, null if absent
+     */
+    public String param(String name) {
+        return params.get(name);
+    }
+
+    /**
+     * @param name tag name without {@code @}
+     * @return first text of the tag, null if absent
+     */
+    public String tag(String name) {
+        var v = tags.get(name);
+        return v == null ? null : v.get(0);
+    }
+
+    /**
+     * @param raw doc comment text
+     * @return parsed comment, null if raw is null
+     */
+    public static DocComment parse(String raw) {
+        if (raw == null) return null;
+        var body = new StringBuilder();
+        var params = new LinkedHashMap<String, String>();
+        var tags = new LinkedHashMap<String, List<String>>();
+        String returns = null;
+        String tag = null;
+        var text = new StringBuilder();
+        var depth = 0;
+        for (var line : raw.split("\r?\n", -1)) {
+            var t = line.trim();
+            if (depth == 0 && t.startsWith("@")) {
+                if (tag != null) returns = block(tag, text.toString().trim(), params, tags, returns);
+                var end = 1;
+                while (end < t.length() && !Character.isWhitespace(t.charAt(end))) end++;
+                tag = t.substring(1, end);
+                text.setLength(0);
+                text.append(t.substring(end).trim());
+            } else {
+                var b = tag == null ? body : text;
+                if (b.length() > 0) b.append('\n');
+                b.append(line);
+            }
+            depth = depth(t, depth);
+        }
+        if (tag != null) returns = block(tag, text.toString().trim(), params, tags, returns);
+        return new DocComment(raw, body.toString().trim(), params, returns, tags);
+    }
+
+    /**
+     * @return nesting of inline tags after the line, block tags inside inline tags are text
+     */
+    private static int depth(String line, int depth) {
+        for (var i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}' && depth > 0) depth--;
+        }
+        return depth;
+    }
+
+    private static String block(String tag, String text, Map<String, String> params, Map<String, List<String>> tags, String returns) {
+        switch (tag) {
+            case "param": {
+                var end = 0;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end))) end++;
+                if (end > 0) params.putIfAbsent(text.substring(0, end), text.substring(end).trim());
+                return returns;
+            }
+            case "return":
+                return returns == null ? text : returns;
+            default:
+                tags.computeIfAbsent(tag, k -> new ArrayList<>(1)).add(text);
+                return returns;
+        }
+    }
+
+    /**
+     * first sentence: ends at a period followed by white space, a blank line or a paragraph tag, outside inline tags.
+     */
+    private static String summary(String body) {
+        var depth = 0;
+        for (var i = 0; i < body.length(); i++) {
+            var c = body.charAt(i);
+            if (c == '{') depth++;
+            else if (c == '}' && depth > 0) depth--;
+            else if (depth > 0) continue;
+            else if (c == '.' && (i + 1 == body.length() || Character.isWhitespace(body.charAt(i + 1))))
+                return body.substring(0, i + 1).trim();
+            else if (c == '\n' && blank(body, i + 1))
+                return body.substring(0, i).trim();
+            else if (c == '<' && body.regionMatches(true, i, "<p>", 0, 3))
+                return body.substring(0, i).trim();
+        }
+        return body;
+    }
+
+    /**
+     * @return the line begins at from is blank and followed by another line
+     */
+    private static boolean blank(String s, int from) {
+        var end = s.indexOf('\n', from);
+        if (end < 0) return false;
+        for (var i = from; i < end; i++) if (!Character.isWhitespace(s.charAt(i))) return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
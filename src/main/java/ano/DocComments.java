@@ -0,0 +1,138 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-round cache of doc comments, shared by all processors of a {@link ProcessingEnvironment}.
+ * <p>
+ * {@link javax.lang.model.util.Elements#getDocComment} reads the tree of the element each call,
+ * with the cache each element is read and parsed once a round even when many generators copy its document.
+ * Entries are dropped when a new round begins (see {@link #round(Object)}), elements of a round are not kept alive.
+ * The cache holds neither the environment nor the round, the registry entry goes away with the environment.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class DocComments {
+    private static final Map<ProcessingEnvironment, DocComments> registry = new WeakHashMap<>();
+    private static final Object NONE = new Object();
+
+    /**
+     * @param env processing environment as key
+     * @return shared cache of the environment
+     */
+    public static synchronized DocComments of(ProcessingEnvironment env) {
+        return registry.computeIfAbsent(env, k -> new DocComments());
+    }
+
+    /**
+     * drop the cache of the environment, called by {@link BaseProcessor} when processing is over.
+     *
+     * @param env processing environment as key
+     */
+    public static synchronized void remove(ProcessingEnvironment env) {
+        var c = registry.remove(env);
+        if (c != null) c.clear();
+    }
+
+    /**
+     * element -> parsed comment or {@link #NONE}
+     */
+    private final Map<Element, Object> cache = new IdentityHashMap<>();
+    /**
+     * current round, weak: the round environment is not kept after javac drops it
+     */
+    private WeakReference<Object> round;
+    private long hits;
+    private long misses;
+
+    private DocComments() {
+    }
+
+    /**
+     * begin a round, clear the cache when the round differs from the last one.
+     * <p>
+     * all processors of a javac round receive the same {@link javax.annotation.processing.RoundEnvironment},
+     * so the first processor of a round clears and the others reuse. {@link BaseProcessor} calls this at each round.
+     *
+     * @param round the round, eg: {@link javax.annotation.processing.RoundEnvironment}
+     */
+    public synchronized void round(Object round) {
+        if (this.round != null && this.round.get() == round) return;
+        this.round = new WeakReference<>(round);
+        cache.clear();
+    }
+
+    /**
+     * @param element  target
+     * @param elements element utils of the environment, read on cache miss
+     * @return parsed doc comment, null if the element has no comment
+     */
+    public synchronized DocComment get(Element element, Elements elements) {
+        var v = cache.get(element);
+        if (v != null) {
+            hits++;
+            return v == NONE ? null : (DocComment) v;
+        }
+        misses++;
+        var doc = DocComment.parse(elements.getDocComment(element));
+        cache.put(element, doc == null ? NONE : doc);
+        return doc;
+    }
+
+    /**
+     * @param element  target
+     * @param elements element utils of the environment, read on cache miss
+     * @return raw doc comment, null if the element has no comment
+     */
+    public String raw(Element element, Elements elements) {
+        var doc = get(element, elements);
+        return doc == null ? null : doc.raw();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return lookups served from cache
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return lookups read from javac
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        round = null;
+    }
+}
@@ -17,16 +17,27 @@ package ano;
 
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import lombok.SneakyThrows;
 import lombok.var;
-import ref.Ref;
 
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
 import java.lang.annotation.Annotation;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Processor Generator for build a Java Code Generate Annotation Processor
@@ -36,6 +47,12 @@ import java.util.List;
  */
 public abstract class JavaGenerator<T extends Annotation, E extends Element> extends BaseProcessor<T, E> {
     protected final String suffix;
+    private SharedHelpers helpers;
+    private TypeNames typeNames;
+    /**
+     * size report of written files, null when not enabled.
+     */
+    private OutputReport outputReport;
 
     protected JavaGenerator(Class<T> annotationType, Class<E> elementType, String suffix) {
         super(annotationType, elementType);
@@ -43,6 +60,54 @@ public abstract class JavaGenerator<T extends Annotation, E extends Element> ext
     }
 
 
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        var options = processingEnv.getOptions();
+        if (options.containsKey("outputreport") || options.containsKey("hugemethod")) {
+            var huge = OutputReport.HUGE_METHOD;
+            try {
+                var v = options.get("hugemethod");
+                if (v != null && !v.trim().isEmpty()) huge = Integer.parseInt(v.trim());
+            } catch (NumberFormatException e) {
+                error("invalid option hugemethod of {}: {}", this.getClass().getCanonicalName(), e.getMessage());
+            }
+            outputReport = new OutputReport(this.getClass().getCanonicalName(), huge);
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        var options = new LinkedHashSet<>(super.getSupportedOptions());
+        options.add("outputreport");
+        options.add("hugemethod");
+        return options;
+    }
+
+    /**
+     * write a file to filer, measured when option outputreport or hugemethod is set,
+     * the file is rendered once then both measured and written.
+     * checks the time budget before writing, see {@link #checkBudget()}.
+     */
+    @SneakyThrows
+    protected void write(JavaFile javaFile) {
+        checkBudget();
+        if (outputReport == null) {
+            javaFile.writeTo(filer());
+            return;
+        }
+        var source = javaFile.toString();
+        outputReport.measure(javaFile, source, this);
+        var name = javaFile.packageName.isEmpty() ? javaFile.typeSpec.name : javaFile.packageName + "." + javaFile.typeSpec.name;
+        var file = filer().createSourceFile(name, javaFile.typeSpec.originatingElements.toArray(new Element[0]));
+        try (var writer = file.openWriter()) {
+            writer.write(source);
+        } catch (Exception e) {
+            file.delete();
+            throw e;
+        }
+    }
+
     /**
      * implement this method to generate sources for type
      * @param pkg current package
@@ -63,25 +128,166 @@ public abstract class JavaGenerator<T extends Annotation, E extends Element> ext
         if (pkg == null || pkg.trim().length() == 0) throw new IllegalStateException("package required");
         var result = build(pkg, type, anno);
         for (var javaFile : result) {
-            javaFile.writeTo(filer());
+            write(javaFile);
+        }
+        return false;
+    }
+
+    /**
+     * implement this method with {@link #batch()} to generate sources for all targets of a package in a round.
+     * default calls {@link #build(String, Element, Annotation)} for each target.
+     *
+     * @param pkg     current package
+     * @param targets elements and annotations of the package
+     * @return group of JavaFiles
+     */
+    protected List<JavaFile> build(String pkg, Map<E, T> targets) {
+        var files = new ArrayList<JavaFile>();
+        for (var e : targets.entrySet()) {
+            files.addAll(build(pkg, e.getKey(), e.getValue()));
+        }
+        return files;
+    }
+
+    /**
+     * the build of each package is accounted by the time budget as one element, the package, see {@link #withBudget}.
+     *
+     * @param groups targets grouped by package
+     * @return skip next processor
+     */
+    @Override
+    protected boolean procGroups(Map<PackageElement, Map<E, T>> groups) {
+        for (var group : groups.entrySet()) {
+            var pkg = group.getKey().getQualifiedName().toString();
+            if (pkg.trim().length() == 0) throw new IllegalStateException("package required");
+            withBudget(group.getKey(), () -> {
+                for (var javaFile : build(pkg, group.getValue())) {
+                    write(javaFile);
+                }
+                return false;
+            });
         }
         return false;
     }
 
+    //region Type Names
+
+    /**
+     * @return memoized JavaPoet type names of current round
+     */
+    protected TypeNames typeNames() {
+        if (typeNames == null) {
+            typeNames = new TypeNames(procEnv().getTypeUtils());
+            scope().onRelease(() -> typeNames = null);
+        }
+        return typeNames;
+    }
+
+    /**
+     * @return cached {@link TypeName#get(TypeMirror)}
+     */
+    protected TypeName typeName(TypeMirror type) {
+        return typeNames().get(type);
+    }
+
+    /**
+     * @return cached {@link ClassName#get(TypeElement)}
+     */
+    protected ClassName className(TypeElement type) {
+        return typeNames().get(type);
+    }
+
+    /**
+     * @return cached type name of {@link #erasure(TypeMirror)}
+     */
+    protected TypeName erasedTypeName(TypeMirror type) {
+        return typeNames().erased(type);
+    }
+
+    /**
+     * @return cached type name, primitives are boxed
+     */
+    protected TypeName boxedTypeName(TypeMirror type) {
+        return typeNames().boxed(type);
+    }
+    //endregion
+
+    //region Shared Helpers
+
+    /**
+     * @return simple name of the shared helper class of each package
+     */
+    protected String helperClassName() {
+        return suffix + "Helpers";
+    }
+
+    protected SharedHelpers helpers() {
+        if (helpers == null) helpers = new SharedHelpers(helperClassName());
+        return helpers;
+    }
+
+    /**
+     * register a static method into the shared helper class of the package, which is written at the end of the round.
+     *
+     * @param pkg         package of helper class
+     * @param spec        static method
+     * @param originating elements requires the helper
+     * @return reference of the method, use as {@code $L(args)}
+     */
+    protected CodeBlock sharedMethod(String pkg, MethodSpec spec, Element... originating) {
+        return helpers().method(pkg, spec, originating);
+    }
+
+    /**
+     * register a static field into the shared helper class of the package, which is written at the end of the round.
+     *
+     * @param pkg         package of helper class
+     * @param spec        static field
+     * @param originating elements requires the helper
+     * @return reference of the field
+     */
+    protected CodeBlock sharedField(String pkg, FieldSpec spec, Element... originating) {
+        return helpers().field(pkg, spec, originating);
+    }
+
+    /**
+     * write pending shared helpers of the round, overrides must call super.
+     */
+    @Override
+    protected void afterRound() {
+        writeHelpers();
+    }
+
+    @SneakyThrows
+    private void writeHelpers() {
+        if (helpers == null || helpers.isEmpty()) return;
+        for (var javaFile : helpers.build(this::generatedBy)) {
+            write(javaFile);
+        }
+    }
+
+    /**
+     * helpers registered in the last round (eg: by an override of this method) are written with a warning of javac.
+     */
+    @Override
+    protected void finish() {
+        writeHelpers();
+        if (helpers != null) helpers.clear();
+        if (outputReport != null) {
+            var report = outputReport.report();
+            if (report != null) note(report);
+        }
+    }
+    //endregion
+
     /**
      * @param spec the type to add Generated annotation
      * @return type spec added generated annotation
      */
     public TypeSpec.Builder generatedBy(TypeSpec.Builder spec) {
         spec.addJavadoc("Generated Source should not modified!!");
-        if (Ref.$.version >= 9) {
-            spec.addAnnotation(AnnotationSpec.builder(ClassName.get("javax.annotation.processing", "Generated"))
-                    .addMember("value", "$S", this.getClass().getCanonicalName())
-                    .addMember("date", "$S", Instant.now().toString())
-                    .build());
-
-        } else if (Ref.$.version >= 6) {
-            spec.addAnnotation(AnnotationSpec.builder(ClassName.get("javax.annotation", "Generated"))
+        if (Platform.GENERATED != null) {
+            spec.addAnnotation(AnnotationSpec.builder(ClassName.bestGuess(Platform.GENERATED))
                     .addMember("value", "$S", this.getClass().getCanonicalName())
                     .addMember("date", "$S", Instant.now().toString())
                     .build());
@@ -0,0 +1,288 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Reusable buffer of a Java source file with import collection, streamed into {@link Filer} when written.
+ * <p>
+ * Type references added by {@link #type(String)} and friends are written as simple names when no conflict,
+ * the imports are collected and written before the body.
+ * An instance is reused by {@link #begin(String, String, Element...)}, it is not thread safe.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class JavaSource {
+    private final StringBuilder body = new StringBuilder(4096);
+    /**
+     * simple name -> qualified name
+     */
+    private final Map<String, String> names = new HashMap<>();
+    private final TreeSet<String> imports = new TreeSet<>();
+    private final char[] buffer = new char[8192];
+    private String pkg = "";
+    private String name;
+    private Element[] originating = new Element[0];
+
+    /**
+     * reset this source for a new file.
+     *
+     * @param pkg         package name, empty for default package
+     * @param name        simple name of top level type
+     * @param originating elements caused this file
+     * @return this
+     */
+    public JavaSource begin(String pkg, String name, Element... originating) {
+        this.pkg = pkg == null ? "" : pkg;
+        this.name = name;
+        this.originating = originating;
+        body.setLength(0);
+        names.clear();
+        imports.clear();
+        names.put(name, qualified(this.pkg, name));
+        return this;
+    }
+
+    public String packageName() {
+        return pkg;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String qualifiedName() {
+        return qualified(pkg, name);
+    }
+
+    /**
+     * @return current body, without package and imports.
+     */
+    public CharSequence body() {
+        return body;
+    }
+
+    //region Types
+
+    /**
+     * @param qualified canonical name of a type
+     * @return name to use in source, import recorded when required
+     */
+    public String type(String qualified) {
+        var dot = qualified.lastIndexOf('.');
+        if (dot < 0) return qualified;
+        var simple = qualified.substring(dot + 1);
+        var exists = names.get(simple);
+        if (exists != null) return exists.equals(qualified) ? simple : qualified;
+        names.put(simple, qualified);
+        var owner = qualified.substring(0, dot);
+        if (!owner.equals("java.lang") && !owner.equals(pkg)) imports.add(qualified);
+        return simple;
+    }
+
+    public String type(Class<?> type) {
+        if (type.isArray()) return type(type.getComponentType()) + "[]";
+        if (type.isPrimitive()) return type.getName();
+        return type(type.getCanonicalName());
+    }
+
+    public String type(TypeElement type) {
+        return type(type.getQualifiedName().toString());
+    }
+
+    /**
+     * append a type to body, with type arguments.
+     */
+    public JavaSource appendType(TypeMirror type) {
+        switch (type.getKind()) {
+            case DECLARED: {
+                var d = (DeclaredType) type;
+                var outer = d.getEnclosingType();
+                if (outer.getKind() == TypeKind.DECLARED && parameterized((DeclaredType) outer)) {
+                    //inner class of a parameterized type, eg: Outer<A>.Inner<B>, as JavaPoet does
+                    appendType(outer);
+                    body.append('.').append(d.asElement().getSimpleName());
+                } else body.append(type((TypeElement) d.asElement()));
+                var args = d.getTypeArguments();
+                if (!args.isEmpty()) {
+                    body.append('<');
+                    for (var i = 0; i < args.size(); i++) {
+                        if (i > 0) body.append(", ");
+                        appendType(args.get(i));
+                    }
+                    body.append('>');
+                }
+                break;
+            }
+            case ARRAY:
+                appendType(((ArrayType) type).getComponentType());
+                body.append("[]");
+                break;
+            case WILDCARD: {
+                var w = (WildcardType) type;
+                body.append('?');
+                if (w.getExtendsBound() != null) {
+                    body.append(" extends ");
+                    appendType(w.getExtendsBound());
+                } else if (w.getSuperBound() != null) {
+                    body.append(" super ");
+                    appendType(w.getSuperBound());
+                }
+                break;
+            }
+            case TYPEVAR:
+                body.append(((TypeVariable) type).asElement().getSimpleName());
+                break;
+            default:
+                body.append(type.toString());
+        }
+        return this;
+    }
+    /**
+     * @return type or one of its enclosing types has type arguments
+     */
+    private static boolean parameterized(DeclaredType type) {
+        if (!type.getTypeArguments().isEmpty()) return true;
+        var outer = type.getEnclosingType();
+        return outer.getKind() == TypeKind.DECLARED && parameterized((DeclaredType) outer);
+    }
+    //endregion
+
+    //region Body
+    public JavaSource append(CharSequence s) {
+        body.append(s);
+        return this;
+    }
+
+    public JavaSource append(char c) {
+        body.append(c);
+        return this;
+    }
+
+    public JavaSource append(long v) {
+        body.append(v);
+        return this;
+    }
+
+    /**
+     * append a value: {@link CharSequence} as is, {@link TypeMirror} {@link TypeElement} and {@link Class} as type reference,
+     * others by {@link String#valueOf(Object)}.
+     */
+    public JavaSource value(Object v) {
+        if (v instanceof CharSequence) body.append((CharSequence) v);
+        else if (v instanceof TypeMirror) appendType((TypeMirror) v);
+        else if (v instanceof TypeElement) body.append(type((TypeElement) v));
+        else if (v instanceof Class) body.append(type((Class<?>) v));
+        else body.append(v);
+        return this;
+    }
+
+    /**
+     * render a template into body.
+     *
+     * @param template the template
+     * @param values   values of slots, in order of {@link Template#names()}
+     * @return this
+     */
+    public JavaSource emit(Template template, Object... values) {
+        if (values.length < template.names.size())
+            throw new IllegalArgumentException("template requires " + template.names + " but only " + values.length + " values");
+        var literals = template.literals;
+        var slots = template.slots;
+        for (var i = 0; i < slots.length; i++) {
+            body.append(literals[i]);
+            value(values[slots[i]]);
+        }
+        body.append(literals[slots.length]);
+        return this;
+    }
+
+    /**
+     * render a template into body.
+     *
+     * @param template the template
+     * @param values   values of slots by name
+     * @return this
+     */
+    public JavaSource emit(Template template, Map<String, ?> values) {
+        var literals = template.literals;
+        var slots = template.slots;
+        var names = template.names;
+        for (var i = 0; i < slots.length; i++) {
+            body.append(literals[i]);
+            var n = names.get(slots[i]);
+            if (!values.containsKey(n)) throw new IllegalArgumentException("missing value of slot " + n);
+            value(values.get(n));
+        }
+        body.append(literals[slots.length]);
+        return this;
+    }
+    //endregion
+
+    /**
+     * write package, imports and body into writer.
+     */
+    public void writeTo(Writer w) throws IOException {
+        if (!pkg.isEmpty()) w.append("package ").append(pkg).append(";\n\n");
+        if (!imports.isEmpty()) {
+            for (var i : imports) w.append("import ").append(i).append(";\n");
+            w.append('\n');
+        }
+        var n = body.length();
+        for (var i = 0; i < n; i += buffer.length) {
+            var end = Math.min(n, i + buffer.length);
+            body.getChars(i, end, buffer, 0);
+            w.write(buffer, 0, end - i);
+        }
+    }
+
+    /**
+     * create the source file and stream content into it.
+     */
+    public void writeTo(Filer filer) throws IOException {
+        try (var w = filer.createSourceFile(qualifiedName(), originating).openWriter()) {
+            writeTo(w);
+        }
+    }
+
+    @Override
+    public String toString() {
+        var w = new StringWriter(body.length() + 256);
+        try {
+            writeTo(w);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return w.toString();
+    }
+
+    private static String qualified(String pkg, String name) {
+        return pkg.isEmpty() ? name : pkg + "." + name;
+    }
+}
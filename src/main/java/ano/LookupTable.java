@@ -0,0 +1,357 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.*;
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Generator of a static lookup class over a compile-time key set, replaces a {@code HashMap} populated in a static initializer.
+ * <p>
+ * Small key sets are emitted as {@code switch} (javac compiles a String switch to a hash lookup), larger ones as
+ * a minimal perfect hash (hash and displace) over primitive arrays, looked up with one hash and one comparison.
+ * The arrays are filled by static helpers of 512 entries each, so large tables do not overflow the class initializer.
+ * Keys are {@link String}s or {@code int}s. Value expressions are evaluated on each lookup in switch form and once in
+ * perfect hash form, so they should be constants, enum constants or references to static singletons.
+ * <pre>{@code
+ * var table = LookupTable.builder(ClassName.get(pkg, "Codes"), ClassName.get(Status.class))
+ *     .put(200, CodeBlock.of("$T.OK", Status.class))
+ *     .put(404, CodeBlock.of("$T.NOT_FOUND", Status.class))
+ *     .build(this::generatedBy); // Codes.get(200) == Status.OK
+ * }</pre>
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class LookupTable {
+    /**
+     * max keys emitted as switch by {@link Strategy#AUTO}
+     */
+    public static final int SWITCH_LIMIT = 256;
+    /**
+     * max keys of perfect hash form, bounded by the constant pool of one class (keys and value expressions)
+     */
+    public static final int MAX_KEYS = 8192;
+    /**
+     * entries initialized by each static helper of perfect hash form, keeps each method far below the 64KB bytecode limit
+     */
+    static final int CHUNK = 512;
+
+    public enum Strategy {
+        AUTO,
+        SWITCH,
+        PERFECT_HASH
+    }
+
+    private LookupTable() {
+    }
+
+    public static Builder builder(ClassName name, TypeName valueType) {
+        return new Builder(name, valueType);
+    }
+
+    public static final class Builder {
+        private final ClassName name;
+        private final TypeName valueType;
+        /**
+         * String or Integer -> value
+         */
+        private final Map<Object, CodeBlock> entries = new LinkedHashMap<>();
+        private final Set<Element> originating = new LinkedHashSet<>();
+        private Boolean strings;
+        private CodeBlock defaultValue;
+        private Strategy strategy = Strategy.AUTO;
+
+        private Builder(ClassName name, TypeName valueType) {
+            this.name = name;
+            this.valueType = valueType;
+        }
+
+        public Builder put(String key, CodeBlock value) {
+            return entry(Objects.requireNonNull(key), true, value);
+        }
+
+        public Builder put(int key, CodeBlock value) {
+            return entry(key, false, value);
+        }
+
+        private Builder entry(Object key, boolean string, CodeBlock value) {
+            if (strings == null) strings = string;
+            else if (strings != string) throw new IllegalArgumentException("mixed String and int keys of " + name);
+            if (entries.put(key, value) != null) throw new IllegalArgumentException("duplicate key " + key + " of " + name);
+            return this;
+        }
+
+        /**
+         * @param value returned for missing keys, default is null, zero or false
+         */
+        public Builder defaultValue(CodeBlock value) {
+            defaultValue = value;
+            return this;
+        }
+
+        public Builder strategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder originating(Element... elements) {
+            Collections.addAll(originating, elements);
+            return this;
+        }
+
+        public TypeSpec build() {
+            return build(UnaryOperator.identity());
+        }
+
+        /**
+         * @param decorate decorator of generated class, eg: {@link JavaGenerator#generatedBy(TypeSpec.Builder)}
+         * @return class with {@code get(key)}, {@code contains(key)} and {@code SIZE}
+         */
+        public TypeSpec build(UnaryOperator<TypeSpec.Builder> decorate) {
+            var keyType = strings == null || strings ? ClassName.get(String.class) : TypeName.INT;
+            var def = defaultValue != null ? defaultValue : defaultOf(valueType);
+            var spec = TypeSpec.classBuilder(name)
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                    .addField(FieldSpec.builder(TypeName.INT, "SIZE", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                            .initializer("$L", entries.size()).build());
+            for (var o : originating) spec.addOriginatingElement(o);
+            var get = MethodSpec.methodBuilder("get")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(valueType)
+                    .addParameter(keyType, "key");
+            var contains = MethodSpec.methodBuilder("contains")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(TypeName.BOOLEAN)
+                    .addParameter(keyType, "key");
+            var useSwitch = strategy == Strategy.SWITCH || strategy == Strategy.AUTO && entries.size() <= SWITCH_LIMIT;
+            if (!useSwitch && entries.size() > MAX_KEYS)
+                throw new IllegalArgumentException(entries.size() + " keys of " + name + " exceed " + MAX_KEYS);
+            if (useSwitch) switchLookup(get, contains, keyType, def);
+            else perfectHash(spec, get, contains, keyType, def);
+            return decorate.apply(spec.addMethod(get.build()).addMethod(contains.build())).build();
+        }
+
+        private void switchLookup(MethodSpec.Builder get, MethodSpec.Builder contains, TypeName keyType, CodeBlock def) {
+            if (!keyType.isPrimitive()) {
+                get.addStatement("if (key == null) return $L", def);
+                contains.addStatement("if (key == null) return false");
+            }
+            if (entries.isEmpty()) {
+                get.addStatement("return $L", def);
+                contains.addStatement("return false");
+                return;
+            }
+            get.beginControlFlow("switch (key)");
+            contains.beginControlFlow("switch (key)");
+            for (var e : entries.entrySet()) {
+                get.addStatement("case $L: return $L", literal(e.getKey()), e.getValue());
+                contains.addCode("case $L:\n", literal(e.getKey()));
+            }
+            get.addStatement("default: return $L", def).endControlFlow();
+            contains.addStatement("return true").addStatement("default: return false").endControlFlow();
+        }
+
+        private void perfectHash(TypeSpec.Builder spec, MethodSpec.Builder get, MethodSpec.Builder contains, TypeName keyType, CodeBlock def) {
+            var keys = new ArrayList<>(entries.keySet());
+            var table = Hash.of(keys);
+            var string = !keyType.isPrimitive();
+            var rawValue = valueType instanceof ParameterizedTypeName ? ((ParameterizedTypeName) valueType).rawType : valueType;
+            var n = table.slots.length;
+            var r = table.displacements.length;
+            spec.addField(FieldSpec.builder(ArrayTypeName.of(keyType), "KEYS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T[$L]", keyType, n).build());
+            spec.addField(FieldSpec.builder(ArrayTypeName.of(rawValue), "VALUES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T[$L]", rawValue, n).build());
+            spec.addField(FieldSpec.builder(int[].class, "DISP", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new int[$L]", r).build());
+            //array initializers of thousands of entries overflow <clinit>, fill the arrays by chunks in static helpers
+            var clinit = CodeBlock.builder();
+            for (var c = 0; c * CHUNK < Math.max(n, r); c++) {
+                var init = MethodSpec.methodBuilder("init" + c).addModifiers(Modifier.PRIVATE, Modifier.STATIC);
+                for (var i = c * CHUNK; i < Math.min(n, (c + 1) * CHUNK); i++) {
+                    var k = keys.get(table.slots[i]);
+                    init.addStatement("KEYS[$L] = $L", i, literal(k));
+                    init.addStatement("VALUES[$L] = $L", i, entries.get(k));
+                }
+                for (var i = c * CHUNK; i < Math.min(r, (c + 1) * CHUNK); i++)
+                    init.addStatement("DISP[$L] = $L", i, table.displacements[i]);
+                spec.addMethod(init.build());
+                clinit.addStatement("init$L()", c);
+            }
+            spec.addStaticBlock(clinit.build());
+            spec.addMethod(MethodSpec.methodBuilder("slot")
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(TypeName.INT)
+                    .addParameter(TypeName.INT, "h")
+                    .addParameter(TypeName.INT, "d")
+                    .addParameter(TypeName.INT, "m")
+                    .addStatement("h ^= d * 0x9E3779B9")
+                    .addStatement("h ^= h >>> 16")
+                    .addStatement("h *= 0x85EBCA6B")
+                    .addStatement("h ^= h >>> 13")
+                    .addStatement("return (h & 0x7fffffff) % m")
+                    .build());
+            if (table.chars) {
+                spec.addMethod(MethodSpec.methodBuilder("hash")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(String.class, "s")
+                        .addStatement("int h = 0x811C9DC5")
+                        .addStatement("for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x01000193")
+                        .addStatement("return h")
+                        .build());
+            }
+            for (var m : Arrays.asList(get, contains)) {
+                if (string) m.addStatement("if (key == null) return $L", m == get ? def : "false");
+                m.addStatement("int h = $L", !string ? "key" : table.chars ? "hash(key)" : "key.hashCode()");
+                m.addStatement("int i = slot(h, DISP[slot(h, 0, DISP.length)], KEYS.length)");
+            }
+            if (valueType != rawValue) get.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build());
+            get.addStatement(string ? "return key.equals(KEYS[i]) ? $L : $L" : "return key == KEYS[i] ? $L : $L",
+                    valueType != rawValue ? CodeBlock.of("($T) VALUES[i]", valueType) : CodeBlock.of("VALUES[i]"), def);
+            contains.addStatement(string ? "return key.equals(KEYS[i])" : "return key == KEYS[i]");
+        }
+
+        private static CodeBlock literal(Object key) {
+            return key instanceof String ? CodeBlock.of("$S", key) : CodeBlock.of("$L", key);
+        }
+
+        private static CodeBlock defaultOf(TypeName type) {
+            if (!type.isPrimitive()) return CodeBlock.of("null");
+            if (type == TypeName.BOOLEAN) return CodeBlock.of("false");
+            if (type == TypeName.CHAR) return CodeBlock.of("'\\0'");
+            if (type == TypeName.LONG) return CodeBlock.of("0L");
+            if (type == TypeName.FLOAT) return CodeBlock.of("0F");
+            if (type == TypeName.DOUBLE) return CodeBlock.of("0D");
+            return CodeBlock.of("($T) 0", type);
+        }
+    }
+
+    /**
+     * minimal perfect hash by hash and displace, same hash function as generated {@code slot(h, d, m)}.
+     */
+    static final class Hash {
+        /**
+         * slot -> index of key
+         */
+        final int[] slots;
+        /**
+         * bucket -> displacement
+         */
+        final int[] displacements;
+        /**
+         * hash codes of keys collide, keys are hashed by chars with {@link #hash(String)}
+         */
+        boolean chars;
+
+        private Hash(int[] slots, int[] displacements) {
+            this.slots = slots;
+            this.displacements = displacements;
+        }
+
+        /**
+         * FNV-1a of chars, same as generated {@code hash(s)}
+         */
+        static int hash(String s) {
+            var h = 0x811C9DC5;
+            for (var i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x01000193;
+            return h;
+        }
+
+        static int slot(int h, int d, int m) {
+            h ^= d * 0x9E3779B9;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return (h & 0x7fffffff) % m;
+        }
+
+        static Hash of(List<Object> keys) {
+            var n = keys.size();
+            var hashes = new int[n];
+            for (var i = 0; i < n; i++) hashes[i] = keys.get(i).hashCode(); //same as String.hashCode and int value
+            var chars = !unique(hashes);
+            if (chars) {
+                for (var i = 0; i < n; i++) hashes[i] = hash((String) keys.get(i));
+                if (!unique(hashes)) throw new IllegalStateException("keys can not be perfectly hashed: " + keys);
+            }
+            var buckets = Math.max(1, n / 4);
+            while (true) {
+                var found = tryBuild(hashes, n, buckets);
+                if (found != null) {
+                    found.chars = chars;
+                    return found;
+                }
+                if (buckets == n) throw new IllegalStateException("keys can not be perfectly hashed: " + keys);
+                buckets = Math.min(n, buckets * 2);
+            }
+        }
+
+        private static Hash tryBuild(int[] hashes, int n, int r) {
+            var buckets = new ArrayList<List<Integer>>(r);
+            for (var i = 0; i < r; i++) buckets.add(new ArrayList<>());
+            for (var i = 0; i < n; i++) buckets.get(slot(hashes[i], 0, r)).add(i);
+            var order = new Integer[r];
+            for (var i = 0; i < r; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+            var slots = new int[n];
+            Arrays.fill(slots, -1);
+            var displacements = new int[r];
+            var taken = new int[0];
+            for (var b : order) {
+                var bucket = buckets.get(b);
+                if (bucket.isEmpty()) break;
+                if (taken.length < bucket.size()) taken = new int[bucket.size()];
+                var placed = false;
+                for (var d = 1; d < 1 << 20 && !placed; d++) {
+                    placed = true;
+                    for (var j = 0; j < bucket.size(); j++) {
+                        var s = slot(hashes[bucket.get(j)], d, n);
+                        if (slots[s] != -1 || contains(taken, j, s)) {
+                            placed = false;
+                            break;
+                        }
+                        taken[j] = s;
+                    }
+                    if (placed) {
+                        for (var j = 0; j < bucket.size(); j++) slots[taken[j]] = bucket.get(j);
+                        displacements[b] = d;
+                    }
+                }
+                if (!placed) return null;
+            }
+            return new Hash(slots, displacements);
+        }
+
+        private static boolean unique(int[] hashes) {
+            var set = new HashSet<Integer>(hashes.length * 2);
+            for (var h : hashes) if (!set.add(h)) return false;
+            return true;
+        }
+
+        private static boolean contains(int[] a, int len, int v) {
+            for (var i = 0; i < len; i++) if (a[i] == v) return true;
+            return false;
+        }
+    }
+}
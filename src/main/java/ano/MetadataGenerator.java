@@ -0,0 +1,368 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.*;
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.tools.StandardLocation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+
+/**
+ * Ready-made generator of {@link TypeMeta} for types annotated with {@link Metadata},
+ * or with any annotation configured by processor option {@code metadata} (comma separated qualified names).
+ * <p>
+ * Generates {@code <Type>Meta} in the same package with constants of field names and annotation values,
+ * and registers all generated classes in {@code META-INF/services/ano.TypeMeta} and the name index
+ * {@value TypeMeta.Registry#INDEX} (type -> metadata class, read by {@link TypeMeta#of(Class)}) when processing is over,
+ * merged with entries already in the class output. Annotations of {@link RetentionPolicy#SOURCE} are not kept.
+ * Register it (or a subclass) in {@code META-INF/services/javax.annotation.processing.Processor} to use.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public class MetadataGenerator extends JavaGenerator<Metadata, TypeElement> {
+    public static final String OPTION = "metadata";
+    private final ConfiguredAnnotations configured = new ConfiguredAnnotations(OPTION);
+    /**
+     * binary name of type -> metadata class
+     */
+    private final Map<String, String> generated = new TreeMap<>();
+    private final List<Element> originating = new ArrayList<>();
+
+    public MetadataGenerator() {
+        super(Metadata.class, TypeElement.class, "Meta");
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        configured.init(processingEnv.getOptions());
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        var options = new LinkedHashSet<>(super.getSupportedOptions());
+        options.add(OPTION);
+        return options;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return configured.supported(super.getSupportedAnnotationTypes());
+    }
+
+    @Override
+    protected Set<? extends Element> targets(RoundEnvironment roundEnv) {
+        return configured.targets(super.targets(roundEnv), roundEnv, procEnv().getElementUtils());
+    }
+
+    @Override
+    protected List<JavaFile> build(String pkg, TypeElement type, Metadata anno) {
+        if (type.getModifiers().contains(Modifier.PRIVATE) || !accessible(type.asType(), pkg)) {
+            warn("{} is not accessible, metadata skipped", type);
+            return Collections.emptyList();
+        }
+        var name = metaName(type);
+        var self = ClassName.get(pkg, name);
+        var member = ClassName.get(TypeMeta.Member.class);
+        var annotationsType = ParameterizedTypeName.get(ClassName.get(Map.class), ClassName.get(String.class),
+                ParameterizedTypeName.get(Map.class, String.class, Object.class));
+        var membersType = ParameterizedTypeName.get(ClassName.get(List.class), member);
+        var constants = new HashSet<String>();
+        var spec = TypeSpec.classBuilder(self)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(TypeMeta.class)
+                .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+                .addOriginatingElement(type);
+        generatedBy(spec);
+        spec.addField(FieldSpec.builder(String.class, "TYPE_NAME", Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$S", type.getQualifiedName().toString()).build());
+        constants.add("TYPE_NAME");
+        var fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+        for (var f : fields) {
+            var c = "FIELD_" + upper(f.getSimpleName().toString());
+            if (constants.add(c))
+                spec.addField(FieldSpec.builder(String.class, c, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$S", f.getSimpleName().toString()).build());
+        }
+        for (var m : type.getAnnotationMirrors()) {
+            var at = (TypeElement) m.getAnnotationType().asElement();
+            if (!retained(at)) continue;
+            for (var e : valuesWithDefaults(m).entrySet()) {
+                var v = e.getValue().getValue();
+                if (!(v instanceof String || v instanceof Number || v instanceof Boolean || v instanceof Character))
+                    continue;
+                var c = upper(at.getSimpleName().toString()) + "_" + upper(e.getKey().getSimpleName().toString());
+                if (!constants.add(c)) continue;
+                spec.addField(FieldSpec.builder(TypeName.get(e.getKey().getReturnType()), c, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(literal(e.getValue(), pkg)).build());
+            }
+        }
+        spec.addField(FieldSpec.builder(annotationsType, "ANNOTATIONS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("($T) $L", Map.class, annotations(type, pkg)).build());
+        var fs = CodeBlock.builder();
+        for (var f : fields) {
+            if (fs.isEmpty()) fs.add("$T.asList(", Arrays.class);
+            else fs.add(",");
+            fs.add("\nnew $T($S, $L, $T.emptyList(), ($T) $L)", member, f.getSimpleName().toString(), classLiteral(f.asType(), pkg),
+                    Collections.class, Map.class, annotations(f, pkg));
+        }
+        spec.addField(FieldSpec.builder(membersType, "FIELDS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(fs.isEmpty() ? CodeBlock.of("$T.emptyList()", Collections.class) : fs.add(")").build()).build());
+        var ms = CodeBlock.builder();
+        for (var m : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (ms.isEmpty()) ms.add("$T.asList(", Arrays.class);
+            else ms.add(",");
+            var ps = CodeBlock.builder();
+            for (var p : m.getParameters()) {
+                ps.add(ps.isEmpty() ? "$L" : ", $L", classLiteral(p.asType(), pkg));
+            }
+            ms.add("\nnew $T($S, $L, $T.<$T<?>>asList($L), ($T) $L)", member, m.getSimpleName().toString(), classLiteral(m.getReturnType(), pkg),
+                    Arrays.class, Class.class, ps.build(), Map.class, annotations(m, pkg));
+        }
+        spec.addField(FieldSpec.builder(membersType, "METHODS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer(ms.isEmpty() ? CodeBlock.of("$T.emptyList()", Collections.class) : ms.add(")").build()).build());
+        spec.addMethod(getter("type", ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)),
+                CodeBlock.of("$T.class", TypeName.get(erasure(type.asType())))));
+        spec.addMethod(getter("annotations", annotationsType, CodeBlock.of("ANNOTATIONS")));
+        spec.addMethod(getter("fields", membersType, CodeBlock.of("FIELDS")));
+        spec.addMethod(getter("methods", membersType, CodeBlock.of("METHODS")));
+        generated.put(procEnv().getElementUtils().getBinaryName(type).toString(), self.reflectionName());
+        originating.add(type);
+        return Collections.singletonList(JavaFile.builder(pkg, spec.build()).build());
+    }
+
+    @SneakyThrows
+    @Override
+    protected void finish() {
+        super.finish();
+        if (generated.isEmpty()) return;
+        //merge with entries of previous compilations, an incremental build only generates changed types
+        var index = new TreeMap<String, String>();
+        for (var line : lines(readOutput(TypeMeta.Registry.INDEX))) {
+            var i = line.indexOf('=');
+            if (i > 0) index.put(line.substring(0, i).trim(), line.substring(i + 1).trim());
+        }
+        index.putAll(generated);
+        var services = new TreeSet<>(index.values());
+        var path = "META-INF/services/" + TypeMeta.class.getName();
+        services.addAll(lines(readOutput(path)));
+        var elements = originating.toArray(new Element[0]);
+        try (var w = filer().createResource(StandardLocation.CLASS_OUTPUT, "", path, elements).openWriter()) {
+            for (var g : services) w.append(g).append('\n');
+        }
+        try (var w = filer().createResource(StandardLocation.CLASS_OUTPUT, "", TypeMeta.Registry.INDEX, elements).openWriter()) {
+            for (var e : index.entrySet()) w.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+        }
+        generated.clear();
+        originating.clear();
+    }
+
+    /**
+     * @return lines without comments and blank lines
+     */
+    private static List<String> lines(String content) {
+        var lines = new ArrayList<String>();
+        if (content == null) return lines;
+        for (var line : content.split("\r?\n")) {
+            var i = line.indexOf('#');
+            var l = (i < 0 ? line : line.substring(0, i)).trim();
+            if (!l.isEmpty()) lines.add(l);
+        }
+        return lines;
+    }
+
+    private static MethodSpec getter(String name, TypeName type, CodeBlock value) {
+        return MethodSpec.methodBuilder(name)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(type)
+                .addStatement("return $L", value)
+                .build();
+    }
+
+    /**
+     * @return simple name of generated class, nested types are joined by '_'
+     */
+    protected String metaName(TypeElement type) {
+        var b = new StringBuilder(type.getSimpleName());
+        for (var e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            b.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return b.append(suffix).toString();
+    }
+
+    private CodeBlock annotations(Element element, String pkg) {
+        var b = CodeBlock.builder().add("$T.mapOf(", TypeMeta.class);
+        var first = true;
+        for (var m : element.getAnnotationMirrors()) {
+            var at = (TypeElement) m.getAnnotationType().asElement();
+            if (!retained(at)) continue;
+            b.add(first ? "$S, $L" : ", $S, $L", at.getQualifiedName().toString(), annotation(m, pkg));
+            first = false;
+        }
+        return b.add(")").build();
+    }
+
+    /**
+     * @return annotation is kept in metadata: not {@link Metadata} and not of {@link RetentionPolicy#SOURCE}
+     */
+    protected boolean retained(TypeElement annotation) {
+        if (annotation.getQualifiedName().contentEquals(Metadata.class.getCanonicalName())) return false;
+        var retention = annotation.getAnnotation(Retention.class);
+        return retention == null || retention.value() != RetentionPolicy.SOURCE;
+    }
+
+    private CodeBlock annotation(AnnotationMirror mirror, String pkg) {
+        var b = CodeBlock.builder().add("$T.mapOf(", TypeMeta.class);
+        var first = true;
+        for (var e : valuesWithDefaults(mirror).entrySet()) {
+            b.add(first ? "$S, $L" : ", $S, $L", e.getKey().getSimpleName().toString(), literal(e.getValue(), pkg));
+            first = false;
+        }
+        return b.add(")").build();
+    }
+
+    private CodeBlock literal(AnnotationValue value, String pkg) {
+        return value.accept(new SimpleAnnotationValueVisitor8<CodeBlock, Void>() {
+            @Override
+            public CodeBlock visitBoolean(boolean b, Void unused) {
+                return CodeBlock.of("$L", b);
+            }
+
+            @Override
+            public CodeBlock visitByte(byte b, Void unused) {
+                return CodeBlock.of("(byte) $L", b);
+            }
+
+            @Override
+            public CodeBlock visitChar(char c, Void unused) {
+                return CodeBlock.of("(char) $L", (int) c);
+            }
+
+            @Override
+            public CodeBlock visitDouble(double d, Void unused) {
+                if (Double.isNaN(d)) return CodeBlock.of("$T.NaN", Double.class);
+                if (Double.isInfinite(d)) return CodeBlock.of(d > 0 ? "$T.POSITIVE_INFINITY" : "$T.NEGATIVE_INFINITY", Double.class);
+                return CodeBlock.of("$LD", d);
+            }
+
+            @Override
+            public CodeBlock visitFloat(float f, Void unused) {
+                if (Float.isNaN(f)) return CodeBlock.of("$T.NaN", Float.class);
+                if (Float.isInfinite(f)) return CodeBlock.of(f > 0 ? "$T.POSITIVE_INFINITY" : "$T.NEGATIVE_INFINITY", Float.class);
+                return CodeBlock.of("$LF", f);
+            }
+
+            @Override
+            public CodeBlock visitInt(int i, Void unused) {
+                return CodeBlock.of("$L", i);
+            }
+
+            @Override
+            public CodeBlock visitLong(long i, Void unused) {
+                return CodeBlock.of("$LL", i);
+            }
+
+            @Override
+            public CodeBlock visitShort(short s, Void unused) {
+                return CodeBlock.of("(short) $L", s);
+            }
+
+            @Override
+            public CodeBlock visitString(String s, Void unused) {
+                return CodeBlock.of("$S", s);
+            }
+
+            @Override
+            public CodeBlock visitType(TypeMirror t, Void unused) {
+                if (accessible(t, pkg)) return CodeBlock.of("$T.class", TypeName.get(erasure(t)));
+                return CodeBlock.of("$S", erasure(t).toString());
+            }
+
+            @Override
+            public CodeBlock visitEnumConstant(VariableElement c, Void unused) {
+                if (accessible(c.asType(), pkg)) return CodeBlock.of("$T.$N", TypeName.get(erasure(c.asType())), c.getSimpleName().toString());
+                return CodeBlock.of("$S", c.getSimpleName().toString());
+            }
+
+            @Override
+            public CodeBlock visitAnnotation(AnnotationMirror a, Void unused) {
+                return annotation(a, pkg);
+            }
+
+            @Override
+            public CodeBlock visitArray(List<? extends AnnotationValue> vals, Void unused) {
+                var b = CodeBlock.builder().add("$T.listOf(", TypeMeta.class);
+                for (var i = 0; i < vals.size(); i++) {
+                    b.add(i == 0 ? "$L" : ", $L", literal(vals.get(i), pkg));
+                }
+                return b.add(")").build();
+            }
+
+            @Override
+            protected CodeBlock defaultAction(Object o, Void unused) {
+                return CodeBlock.of("null");
+            }
+        }, null);
+    }
+
+    private CodeBlock classLiteral(TypeMirror type, String pkg) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID)
+            return CodeBlock.of("$T.class", TypeName.get(type));
+        if (!accessible(type, pkg)) return CodeBlock.of("$T.class", Object.class);
+        return CodeBlock.of("$T.class", TypeName.get(erasure(type)));
+    }
+
+    /**
+     * @return does erasure of type can be referenced from package
+     */
+    protected boolean accessible(TypeMirror type, String pkg) {
+        var t = erasure(type);
+        if (t.getKind().isPrimitive()) return true;
+        if (t.getKind() == TypeKind.ARRAY) return accessible(((ArrayType) t).getComponentType(), pkg);
+        if (t.getKind() != TypeKind.DECLARED) return false;
+        for (Element e = ((DeclaredType) t).asElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            var mods = e.getModifiers();
+            if (mods.contains(Modifier.PUBLIC)) continue;
+            if (mods.contains(Modifier.PRIVATE) || !packageOf(e).getQualifiedName().contentEquals(pkg)) return false;
+        }
+        return true;
+    }
+
+    private static String upper(String name) {
+        var b = new StringBuilder(name.length() + 4);
+        for (var i = 0; i < name.length(); i++) {
+            var c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))) b.append('_');
+            b.append(Character.toUpperCase(c));
+        }
+        return b.toString();
+    }
+}
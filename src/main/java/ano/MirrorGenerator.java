@@ -0,0 +1,85 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.JavaFile;
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java generator reads annotation values only from mirrors: sources are built by {@link #buildMirror(String, Element, AnnotatedMirror)},
+ * the annotation proxy is never created. Same as {@link MirrorProcessor} for {@link JavaGenerator}.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public abstract class MirrorGenerator<T extends Annotation, E extends Element> extends JavaGenerator<T, E> {
+    protected MirrorGenerator(Class<T> annotationType, Class<E> elementType, String suffix) {
+        super(annotationType, elementType, suffix);
+    }
+
+    @Override
+    final boolean mirrorOnly() {
+        return true;
+    }
+
+    /**
+     * implement this method to generate sources for type
+     *
+     * @param pkg    current package
+     * @param type   element
+     * @param mirror annotation mirror, null if element is not annotated (see {@link #targets(javax.annotation.processing.RoundEnvironment)})
+     * @return group of JavaFiles
+     */
+    protected abstract List<JavaFile> buildMirror(String pkg, E type, AnnotatedMirror mirror);
+
+    /**
+     * never called, sources are built by {@link #buildMirror(String, Element, AnnotatedMirror)}.
+     */
+    @Override
+    protected final List<JavaFile> build(String pkg, E type, T anno) {
+        throw new IllegalStateException("mirror only generator");
+    }
+
+    /**
+     * default calls {@link #buildMirror(String, Element, AnnotatedMirror)} for each target, annotations of targets are null.
+     */
+    @Override
+    protected List<JavaFile> build(String pkg, Map<E, T> targets) {
+        var files = new ArrayList<JavaFile>();
+        for (var type : targets.keySet()) {
+            files.addAll(buildMirror(pkg, type, mirrorOf(type)));
+        }
+        return files;
+    }
+
+    @SneakyThrows
+    @Override
+    boolean procMirror(E type, AnnotatedMirror mirror) {
+        var pkg = packageOf(type).getQualifiedName().toString();
+        if (pkg.trim().length() == 0) throw new IllegalStateException("package required");
+        for (var javaFile : buildMirror(pkg, type, mirror)) {
+            write(javaFile);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import javax.lang.model.element.Element;
+import java.lang.annotation.Annotation;
+
+/**
+ * Processor reads annotation values only from mirrors: targets are processed by {@link #procMirror(Element, AnnotatedMirror)},
+ * the annotation proxy is never created.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public abstract class MirrorProcessor<T extends Annotation, E extends Element> extends BaseProcessor<T, E> {
+    protected MirrorProcessor(Class<T> annotationType, Class<E> elementType) {
+        super(annotationType, elementType);
+    }
+
+    @Override
+    final boolean mirrorOnly() {
+        return true;
+    }
+
+    /**
+     * never called, targets are processed by {@link #procMirror(Element, AnnotatedMirror)}.
+     */
+    @Override
+    protected final boolean proc(E type, T anno) {
+        throw new IllegalStateException("mirror only processor");
+    }
+
+    /**
+     * process a single annotated element.
+     *
+     * @param type   the element
+     * @param mirror the annotation mirror, null if element is not annotated (see {@link #targets(javax.annotation.processing.RoundEnvironment)})
+     * @return dose skip next processors
+     */
+    @Override
+    protected abstract boolean procMirror(E type, AnnotatedMirror mirror);
+}
@@ -0,0 +1,429 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Ready-made generator of GraalVM native image configuration for elements annotated with {@link NativeReflect},
+ * or with any annotation configured by processor option {@code nativeimage} (comma separated qualified names).
+ * <p>
+ * Entries are merged across rounds and written once when processing is over, into
+ * {@code META-INF/native-image/<group>/<artifact>/reflect-config.json} and {@code resource-config.json},
+ * merged with the files already in the class output: an incremental build only processes changed types,
+ * entries of types processed again are replaced, others are kept.
+ * the directory is set by options {@code nativeimage.group} and {@code nativeimage.artifact}.
+ * Only registered members are listed, instead of {@code allDeclared*} flags, which keeps the image small.
+ * Register it (or a subclass) in {@code META-INF/services/javax.annotation.processing.Processor} to use.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public class NativeImageGenerator extends MirrorProcessor<NativeReflect, Element> {
+    public static final String OPTION = "nativeimage";
+    public static final String OPTION_GROUP = "nativeimage.group";
+    public static final String OPTION_ARTIFACT = "nativeimage.artifact";
+    private final ConfiguredAnnotations configured = new ConfiguredAnnotations(OPTION);
+    /**
+     * binary name -> entry, only names are kept across rounds
+     */
+    private final Map<String, Entry> reflect = new TreeMap<>();
+    /**
+     * patterns of resources
+     */
+    private final Set<String> resources = new TreeSet<>();
+    private String group;
+    private String artifact;
+
+    public NativeImageGenerator() {
+        super(NativeReflect.class, Element.class);
+    }
+
+    private static final class Entry {
+        final Set<String> fields = new TreeSet<>();
+        /**
+         * json of methods
+         */
+        final Set<String> methods = new TreeSet<>();
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        var options = processingEnv.getOptions();
+        configured.init(options);
+        group = options.getOrDefault(OPTION_GROUP, "ano");
+        artifact = options.getOrDefault(OPTION_ARTIFACT, "generated");
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        var options = new LinkedHashSet<>(super.getSupportedOptions());
+        options.add(OPTION);
+        options.add(OPTION_GROUP);
+        options.add(OPTION_ARTIFACT);
+        return options;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return configured.supported(super.getSupportedAnnotationTypes());
+    }
+
+    @Override
+    protected Set<? extends Element> targets(RoundEnvironment roundEnv) {
+        return configured.targets(super.targets(roundEnv), roundEnv, procEnv().getElementUtils());
+    }
+
+    /**
+     * @param element annotated element
+     * @param mirror  null for elements only carrying configured annotations
+     */
+    @Override
+    protected boolean procMirror(Element element, AnnotatedMirror mirror) {
+        switch (element.getKind()) {
+            case FIELD:
+            case ENUM_CONSTANT:
+                entry((TypeElement) element.getEnclosingElement()).fields.add(element.getSimpleName().toString());
+                break;
+            case METHOD:
+            case CONSTRUCTOR:
+                method(entry((TypeElement) element.getEnclosingElement()), (ExecutableElement) element);
+                break;
+            default:
+                if (!(element instanceof TypeElement)) {
+                    warn("{} of {} is not supported by native image configuration", element.getKind(), element);
+                    return false;
+                }
+                var type = (TypeElement) element;
+                var entry = entry(type);
+                var constructors = mirror == null || mirror.getBoolean("constructors").orElse(true);
+                var fields = mirror == null || mirror.getBoolean("fields").orElse(true);
+                var methods = mirror != null && mirror.getBoolean("methods").orElse(false);
+                if (constructors)
+                    for (var c : ElementFilter.constructorsIn(type.getEnclosedElements())) method(entry, c);
+                if (fields)
+                    for (var f : ElementFilter.fieldsIn(type.getEnclosedElements())) entry.fields.add(f.getSimpleName().toString());
+                if (methods)
+                    for (var m : ElementFilter.methodsIn(type.getEnclosedElements())) method(entry, m);
+                break;
+        }
+        if (mirror != null) mirror.getStrings("resources").ifPresent(rs -> rs.forEach(r -> resources.add(Pattern.quote(r))));
+        return false;
+    }
+
+    private Entry entry(TypeElement type) {
+        return reflect.computeIfAbsent(procEnv().getElementUtils().getBinaryName(type).toString(), k -> new Entry());
+    }
+
+    private void method(Entry entry, ExecutableElement method) {
+        var name = method.getKind() == ElementKind.CONSTRUCTOR ? "<init>" : method.getSimpleName().toString();
+        var parameters = new ArrayList<String>();
+        for (var p : method.getParameters()) parameters.add(binaryName(erasure(p.asType())));
+        entry.methods.add(method(name, parameters));
+    }
+
+    /**
+     * @return json of a method
+     */
+    private static String method(String name, List<?> parameters) {
+        var b = new StringBuilder();
+        b.append("{\"name\":");
+        string(b, name);
+        b.append(",\"parameterTypes\":[");
+        var first = true;
+        for (var p : parameters) {
+            if (!first) b.append(',');
+            first = false;
+            string(b, String.valueOf(p));
+        }
+        b.append("]}");
+        return b.toString();
+    }
+
+    private String binaryName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return binaryName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return procEnv().getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+            default:
+                return type.toString();
+        }
+    }
+
+    @SneakyThrows
+    @Override
+    protected void finish() {
+        super.finish();
+        var dir = "META-INF/native-image/" + group + "/" + artifact + "/";
+        if (!reflect.isEmpty()) {
+            var path = dir + "reflect-config.json";
+            mergeReflect(path);
+            try (var w = filer().createResource(StandardLocation.CLASS_OUTPUT, "", path).openWriter()) {
+                writeReflect(w);
+            }
+        }
+        if (!resources.isEmpty()) {
+            var path = dir + "resource-config.json";
+            mergeResources(path);
+            try (var w = filer().createResource(StandardLocation.CLASS_OUTPUT, "", path).openWriter()) {
+                writeResources(w);
+            }
+        }
+        reflect.clear();
+        resources.clear();
+    }
+
+    /**
+     * keep entries of previous compilation for types not processed in this one
+     */
+    private void mergeReflect(String path) {
+        var old = readJson(path);
+        if (!(old instanceof List)) return;
+        for (var o : (List<?>) old) {
+            if (!(o instanceof Map)) continue;
+            var m = (Map<?, ?>) o;
+            var name = m.get("name");
+            if (!(name instanceof String) || reflect.containsKey(name)) continue;
+            var entry = new Entry();
+            for (var f : list(m.get("fields"))) {
+                if (f instanceof Map && ((Map<?, ?>) f).get("name") instanceof String)
+                    entry.fields.add((String) ((Map<?, ?>) f).get("name"));
+            }
+            for (var x : list(m.get("methods"))) {
+                if (x instanceof Map && ((Map<?, ?>) x).get("name") instanceof String)
+                    entry.methods.add(method((String) ((Map<?, ?>) x).get("name"), list(((Map<?, ?>) x).get("parameterTypes"))));
+            }
+            reflect.put((String) name, entry);
+        }
+    }
+
+    private void mergeResources(String path) {
+        var old = readJson(path);
+        if (!(old instanceof Map) || !(((Map<?, ?>) old).get("resources") instanceof Map)) return;
+        for (var r : list(((Map<?, ?>) ((Map<?, ?>) old).get("resources")).get("includes"))) {
+            if (r instanceof Map && ((Map<?, ?>) r).get("pattern") instanceof String)
+                resources.add((String) ((Map<?, ?>) r).get("pattern"));
+        }
+    }
+
+    /**
+     * @return parsed json of class output, null if not exists or malformed
+     */
+    private Object readJson(String path) {
+        var content = readOutput(path);
+        if (content == null) return null;
+        try {
+            return new JsonReader(content).value();
+        } catch (RuntimeException e) {
+            warn("{} ignored, malformed json: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<?> list(Object v) {
+        return v instanceof List ? (List<?>) v : Collections.emptyList();
+    }
+
+    private void writeReflect(Writer w) throws IOException {
+        var b = new StringBuilder();
+        b.append("[");
+        var first = true;
+        for (var e : reflect.entrySet()) {
+            b.append(first ? "\n" : ",\n");
+            first = false;
+            b.append("  {\"name\":");
+            string(b, e.getKey());
+            var entry = e.getValue();
+            if (!entry.fields.isEmpty()) {
+                b.append(",\n   \"fields\":[");
+                var f = true;
+                for (var name : entry.fields) {
+                    if (!f) b.append(',');
+                    f = false;
+                    b.append("{\"name\":");
+                    string(b, name);
+                    b.append('}');
+                }
+                b.append(']');
+            }
+            if (!entry.methods.isEmpty()) {
+                b.append(",\n   \"methods\":[");
+                var f = true;
+                for (var m : entry.methods) {
+                    b.append(f ? "\n    " : ",\n    ");
+                    f = false;
+                    b.append(m);
+                }
+                b.append("\n   ]");
+            }
+            b.append('}');
+        }
+        b.append("\n]\n");
+        w.append(b);
+    }
+
+    private void writeResources(Writer w) throws IOException {
+        var b = new StringBuilder();
+        b.append("{\n  \"resources\":{\n    \"includes\":[");
+        var first = true;
+        for (var r : resources) {
+            b.append(first ? "\n      " : ",\n      ");
+            first = false;
+            b.append("{\"pattern\":");
+            string(b, r);
+            b.append('}');
+        }
+        b.append("\n    ]\n  }\n}\n");
+        w.append(b);
+    }
+
+    private static void string(StringBuilder b, String s) {
+        b.append('"');
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    b.append("\\\"");
+                    break;
+                case '\\':
+                    b.append("\\\\");
+                    break;
+                case '\n':
+                    b.append("\\n");
+                    break;
+                case '\t':
+                    b.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) b.append(String.format("\\u%04x", (int) c));
+                    else b.append(c);
+            }
+        }
+        b.append('"');
+    }
+
+    /**
+     * minimal reader of json: objects, arrays, strings, other literals are kept as text
+     */
+    private static final class JsonReader {
+        private final String s;
+        private int i;
+
+        JsonReader(String s) {
+            this.s = s;
+        }
+
+        Object value() {
+            skip();
+            var c = s.charAt(i);
+            if (c == '{') {
+                i++;
+                var m = new LinkedHashMap<String, Object>();
+                if (accept('}')) return m;
+                do {
+                    skip();
+                    var k = string();
+                    expect(':');
+                    m.put(k, value());
+                } while (accept(','));
+                expect('}');
+                return m;
+            }
+            if (c == '[') {
+                i++;
+                var l = new ArrayList<Object>();
+                if (accept(']')) return l;
+                do l.add(value()); while (accept(','));
+                expect(']');
+                return l;
+            }
+            if (c == '"') return string();
+            var begin = i;
+            while (i < s.length() && ",:}] \t\r\n".indexOf(s.charAt(i)) < 0) i++;
+            if (begin == i) throw new IllegalArgumentException("unexpected '" + c + "' at " + i);
+            return s.substring(begin, i);
+        }
+
+        private String string() {
+            expect('"');
+            var b = new StringBuilder();
+            for (var c = s.charAt(i++); c != '"'; c = s.charAt(i++)) {
+                if (c != '\\') {
+                    b.append(c);
+                    continue;
+                }
+                c = s.charAt(i++);
+                switch (c) {
+                    case 'n':
+                        b.append('\n');
+                        break;
+                    case 't':
+                        b.append('\t');
+                        break;
+                    case 'r':
+                        b.append('\r');
+                        break;
+                    case 'b':
+                        b.append('\b');
+                        break;
+                    case 'f':
+                        b.append('\f');
+                        break;
+                    case 'u':
+                        b.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                        break;
+                    default:
+                        b.append(c);
+                }
+            }
+            return b.toString();
+        }
+
+        private void skip() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        }
+
+        private boolean accept(char c) {
+            skip();
+            if (i < s.length() && s.charAt(i) == c) {
+                i++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) throw new IllegalArgumentException("expected '" + c + "' at " + i);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.*;
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Size and complexity of sources written by a {@link JavaGenerator}, enabled by options {@code outputreport} and {@code hugemethod}.
+ * <p>
+ * Method sizes are estimated from tokens of code (see {@link #estimate(CodeBlock)}), calibrated against javac output
+ * to within about 20% for switches, array stores and call chains. Static field initializers count for the static initializer,
+ * instance field initializers and initializer blocks for each constructor.
+ * Methods beyond {@code hugemethod} (default {@value #HUGE_METHOD}, the HotSpot limit of JIT compiled methods)
+ * and beyond the 64KB method limit are warned at the originating element.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class OutputReport {
+    /**
+     * HotSpot {@code HugeMethodLimit}: larger methods are not JIT compiled while {@code DontCompileHugeMethods} is on, the default
+     */
+    public static final int HUGE_METHOD = 8000;
+    /**
+     * JVM limit of method code
+     */
+    public static final int METHOD_LIMIT = 65535;
+    private static final int TOP = 10;
+    private final String owner;
+    private final int hugeMethod;
+    private long files;
+    private long bytes;
+    private long types;
+    private long methods;
+    private final PriorityQueue<Item> largestFiles = new PriorityQueue<>(Comparator.comparingLong(i -> i.size));
+    private final PriorityQueue<Item> largestMethods = new PriorityQueue<>(Comparator.comparingLong(i -> i.size));
+
+    private static final class Item {
+        final String name;
+        final long size;
+
+        Item(String name, long size) {
+            this.name = name;
+            this.size = size;
+        }
+    }
+
+    /**
+     * @param owner      name of processor
+     * @param hugeMethod threshold of estimated bytecodes of a method to warn
+     */
+    public OutputReport(String owner, int hugeMethod) {
+        this.owner = owner;
+        this.hugeMethod = hugeMethod;
+    }
+
+    /**
+     * measure a file before written.
+     *
+     * @param file   the file
+     * @param source the file rendered
+     * @param logger to warn at the originating element
+     */
+    public void measure(JavaFile file, String source, Logger logger) {
+        var size = utf8Length(source);
+        files++;
+        bytes += size;
+        var name = file.packageName.isEmpty() ? file.typeSpec.name : file.packageName + "." + file.typeSpec.name;
+        top(largestFiles, new Item(name, size));
+        var origin = file.typeSpec.originatingElements.isEmpty() ? null : file.typeSpec.originatingElements.get(0);
+        measure(name, file.typeSpec, origin, logger);
+    }
+
+    private void measure(String name, TypeSpec type, Element origin, Logger logger) {
+        types++;
+        long clinit = 0;
+        long init = 0;
+        for (var f : type.fieldSpecs) {
+            if (f.initializer == null) continue;
+            if (f.modifiers.contains(Modifier.STATIC) || type.kind == TypeSpec.Kind.INTERFACE) clinit += estimate(f.initializer);
+            else init += estimate(f.initializer);
+        }
+        clinit += estimate(type.staticBlock);
+        init += estimate(type.initializerBlock);
+        if (clinit > 0) method(name + ".<clinit>", clinit, origin, logger);
+        //javac copies instance initializers into each constructor, or into the default one
+        var constructors = false;
+        for (var m : type.methodSpecs) {
+            methods++;
+            constructors |= m.isConstructor();
+            method(name + "." + m.name, estimate(m.code) + (m.isConstructor() ? init : 0), origin, logger);
+        }
+        if (!constructors && init > 0) method(name + ".<init>", init, origin, logger);
+        for (var t : type.typeSpecs) measure(name + "$" + t.name, t, origin, logger);
+    }
+
+    private void method(String name, long size, Element origin, Logger logger) {
+        top(largestMethods, new Item(name, size));
+        if (size > METHOD_LIMIT)
+            logger.warn("{} generated {} of ~{} bytecodes, likely exceeds the {} bytes method limit", owner, name, size, METHOD_LIMIT, origin);
+        else if (size > hugeMethod)
+            logger.warn("{} generated {} of ~{} bytecodes, over the huge method limit {} and will not be JIT compiled", owner, name, size, hugeMethod, origin);
+    }
+
+    private static void top(PriorityQueue<Item> q, Item item) {
+        if (q.size() < TOP || q.peek().size < item.size) {
+            q.add(item);
+            if (q.size() > TOP) q.poll();
+        }
+    }
+
+    /**
+     * estimated bytecodes by tokens: names and literals are loads (literals of any length are one constant),
+     * operators are one instruction, control flow keywords are branches and each {@code case} is a switch entry with its compare.
+     *
+     * @return estimated bytecodes of code
+     */
+    static long estimate(CodeBlock code) {
+        if (code == null || code.isEmpty()) return 0;
+        var s = code.toString();
+        long n = 0;
+        var i = 0;
+        var label = false;
+        while (i < s.length()) {
+            var c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '/' && s.startsWith("//", i)) {
+                i = skip(s, s.indexOf('\n', i));
+            } else if (c == '/' && s.startsWith("/*", i)) {
+                var end = s.indexOf("*/", i + 2);
+                i = end < 0 ? s.length() : end + 2;
+            } else if (c == '"' || c == '\'') {
+                i++;
+                while (i < s.length() && s.charAt(i) != c) i += s.charAt(i) == '\\' ? 2 : 1;
+                i++;
+                //a String case is also a hashCode entry and an equals call
+                n += label && c == '"' ? 21 : 2;
+                label = false;
+            } else if (Character.isJavaIdentifierStart(c) || Character.isDigit(c)) {
+                var begin = i;
+                while (i < s.length() && (Character.isJavaIdentifierPart(s.charAt(i)) || Character.isDigit(c) && s.charAt(i) == '.')) i++;
+                var w = s.substring(begin, i);
+                n += Character.isDigit(c) ? 2 : word(w);
+                label = w.equals("case");
+            } else {
+                i++;
+                if ("+-*/%<>!&|^~=?[".indexOf(c) >= 0) n++;
+                label = false;
+            }
+        }
+        return n;
+    }
+
+    private static int skip(String s, int eol) {
+        return eol < 0 ? s.length() : eol + 1;
+    }
+
+    private static int word(String w) {
+        switch (w) {
+            case "new":
+                return 4;
+            case "case":
+                return 8;
+            case "if":
+            case "else":
+            case "while":
+            case "for":
+            case "do":
+            case "break":
+            case "continue":
+            case "instanceof":
+                return 3;
+            case "return":
+            case "throw":
+            case "this":
+            case "super":
+            case "null":
+            case "true":
+            case "false":
+                return 1;
+            case "boolean":
+            case "byte":
+            case "char":
+            case "short":
+            case "int":
+            case "long":
+            case "float":
+            case "double":
+            case "void":
+            case "final":
+            case "class":
+            case "default":
+            case "switch":
+            case "try":
+                return 0;
+            default:
+                return 2;
+        }
+    }
+
+    private static long utf8Length(String s) {
+        long n = 0;
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            if (c < 0x80) n++;
+            else if (c < 0x800) n += 2;
+            else if (Character.isHighSurrogate(c)) {
+                n += 4;
+                i++;
+            } else n += 3;
+        }
+        return n;
+    }
+
+    /**
+     * @return report of totals and largest files and methods, null if nothing written
+     */
+    public String report() {
+        if (files == 0) return null;
+        var b = new StringBuilder();
+        b.append(owner).append(" output: ").append(files).append(" files, ").append(bytes).append(" bytes, ")
+                .append(types).append(" types, ").append(methods).append(" methods");
+        b.append("\n  largest files:");
+        for (var i : sorted(largestFiles)) b.append("\n  ").append(String.format("%10d bytes ", i.size)).append(i.name);
+        b.append("\n  largest methods:");
+        for (var i : sorted(largestMethods)) b.append("\n  ").append(String.format("%10d bytecodes ~ ", i.size)).append(i.name);
+        return b.toString();
+    }
+
+    private static List<Item> sorted(PriorityQueue<Item> q) {
+        var l = new ArrayList<>(q);
+        l.sort(Comparator.comparingLong((Item i) -> i.size).reversed());
+        return l;
+    }
+}
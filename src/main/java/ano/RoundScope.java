@@ -0,0 +1,121 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round scoped arena of ano objects holding javac references ({@link AnnotatedMirror}, {@link AnnotatedMirrors}, {@link Values}),
+ * all owned objects are released at the end of the round by {@link BaseProcessor}.
+ * <p>
+ * A released object throws {@link IllegalStateException} when accessed, which reveals objects stashed across rounds.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class RoundScope {
+    /**
+     * object owned by a scope
+     */
+    interface Owned {
+        void release();
+
+        /**
+         * rough estimate, not measured: fixed sizes of the object and of each entry it holds
+         * (headers and references of a 64-bit JVM with compressed oops), javac objects referenced are not counted.
+         * only meant to compare rounds and spot growth.
+         *
+         * @return approximate retained bytes
+         */
+        long footprint();
+    }
+
+    private final List<Owned> owned = new ArrayList<>();
+    private final List<Runnable> hooks = new ArrayList<>();
+    private AnnotationGraph graph;
+
+    public AnnotatedMirror mirror(AnnotationMirror mirror) {
+        return own(new AnnotatedMirror(mirror));
+    }
+
+    public AnnotatedMirrors mirrors(Element element) {
+        return own(new AnnotatedMirrors(element.getAnnotationMirrors(), graph()));
+    }
+
+    public AnnotatedMirrors mirrors(List<? extends AnnotationMirror> mirrors) {
+        return own(new AnnotatedMirrors(mirrors, graph()));
+    }
+
+    /**
+     * @return meta-annotation graph shared by mirrors of this round
+     */
+    public AnnotationGraph graph() {
+        if (graph == null) graph = new AnnotationGraph();
+        return graph;
+    }
+
+    /**
+     * @return values of annotation on element, null if not present
+     */
+    public <T extends Annotation> Values<T> values(Element element, Class<T> type) {
+        var anno = element.getAnnotation(type);
+        if (anno == null) return null;
+        return own(new Values<>(anno, element));
+    }
+
+    /**
+     * register an action at round end, eg: clear a cache of the processor.
+     */
+    public void onRelease(Runnable hook) {
+        hooks.add(hook);
+    }
+
+    private <V extends Owned> V own(V v) {
+        owned.add(v);
+        return v;
+    }
+
+    public int size() {
+        return owned.size();
+    }
+
+    /**
+     * @return approximate retained bytes of owned objects, a rough estimate (see {@link Owned#footprint()})
+     */
+    public long footprint() {
+        long n = 16 + owned.size() * 8L;
+        for (var o : owned) n += o.footprint();
+        if (graph != null) n += graph.footprint();
+        return n;
+    }
+
+    /**
+     * release all owned objects and run hooks.
+     */
+    void release() {
+        for (var o : owned) o.release();
+        owned.clear();
+        graph = null;
+        for (var h : hooks) h.run();
+        hooks.clear();
+    }
+}
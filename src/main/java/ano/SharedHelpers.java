@@ -0,0 +1,234 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.*;
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registry of static helper members shared by generated sources, emitted once per package as a single class.
+ * <p>
+ * Members are de-duplicated by content (name excluded): registering the same helper twice returns a reference to the first one,
+ * a different helper with an existing name and same erased parameter types is renamed with a numeric suffix.
+ * <p>
+ * Pending helpers are built at the end of each round (see {@link JavaGenerator}), so they are written before the last round.
+ * A package whose helper class is already written receives a new class suffixed by a number for helpers registered later.
+ * <p>
+ * The package may differ from the package of the originating elements, eg: the root package of a module to share helpers among packages,
+ * then members must be public to be reachable.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class SharedHelpers {
+    private final String className;
+    /**
+     * package -> helper classes, the last one receives new members until written
+     */
+    private final Map<String, List<Holder>> packages = new TreeMap<>();
+
+    public SharedHelpers(String className) {
+        this.className = className;
+    }
+
+    static final class Holder {
+        final ClassName type;
+        /**
+         * content -> name
+         */
+        final Map<String, String> contents = new HashMap<>();
+        /**
+         * signature with erased parameter types -> member
+         */
+        final Map<String, Object> members = new LinkedHashMap<>();
+        final Set<Element> originating = new LinkedHashSet<>();
+        boolean written;
+
+        Holder(ClassName type) {
+            this.type = type;
+        }
+    }
+
+    private Holder holder(String pkg) {
+        var list = packages.computeIfAbsent(pkg, p -> new ArrayList<>(1));
+        var h = list.isEmpty() ? null : list.get(list.size() - 1);
+        if (h == null || h.written) {
+            h = new Holder(ClassName.get(pkg, list.isEmpty() ? className : className + (list.size() + 1)));
+            list.add(h);
+        }
+        return h;
+    }
+
+    /**
+     * @return reference of a registered member with same content, null if none
+     */
+    private CodeBlock find(String pkg, String content, Element[] originating) {
+        var list = packages.get(pkg);
+        if (list == null) return null;
+        for (var h : list) {
+            var name = h.contents.get(content);
+            if (name == null) continue;
+            if (!h.written) Collections.addAll(h.originating, originating);
+            return CodeBlock.of("$T.$N", h.type, name);
+        }
+        return null;
+    }
+
+    /**
+     * @return the first helper class of the package
+     */
+    public ClassName className(String pkg) {
+        return ClassName.get(pkg, className);
+    }
+
+    /**
+     * @param pkg         package of the helper class
+     * @param spec        a static method, public when pkg is not the package of an originating element
+     * @param originating elements requires this helper
+     * @return reference as {@code Helpers.method}, use as {@code $L(args)}
+     * @throws IllegalArgumentException when the method is not static or not reachable from originating elements
+     */
+    public CodeBlock method(String pkg, MethodSpec spec, Element... originating) {
+        if (!spec.hasModifier(Modifier.STATIC)) throw new IllegalArgumentException("helper method must be static: " + spec.name);
+        reachable(pkg, spec.modifiers, spec.name, originating);
+        var content = rename(spec, "$").toString();
+        var found = find(pkg, content, originating);
+        if (found != null) return found;
+        var h = holder(pkg);
+        Collections.addAll(h.originating, originating);
+        var params = new StringJoiner(",", "(", ")");
+        for (var p : spec.parameters) params.add(erasure(p.type).toString());
+        var sig = params.toString();
+        var name = spec.name;
+        for (var i = 1; h.members.containsKey(name + sig); i++) name = spec.name + "$" + i;
+        h.members.put(name + sig, name.equals(spec.name) ? spec : rename(spec, name));
+        h.contents.put(content, name);
+        return CodeBlock.of("$T.$N", h.type, name);
+    }
+
+    /**
+     * @param pkg         package of the helper class
+     * @param spec        a static field, usually a constant, public when pkg is not the package of an originating element
+     * @param originating elements requires this helper
+     * @return reference as {@code Helpers.field}
+     * @throws IllegalArgumentException when the field is not static or not reachable from originating elements
+     */
+    public CodeBlock field(String pkg, FieldSpec spec, Element... originating) {
+        if (!spec.hasModifier(Modifier.STATIC)) throw new IllegalArgumentException("helper field must be static: " + spec.name);
+        reachable(pkg, spec.modifiers, spec.name, originating);
+        var content = rename(spec, "$").toString();
+        var found = find(pkg, content, originating);
+        if (found != null) return found;
+        var h = holder(pkg);
+        Collections.addAll(h.originating, originating);
+        var name = spec.name;
+        for (var i = 1; h.members.containsKey(name); i++) name = spec.name + "$" + i;
+        h.members.put(name, name.equals(spec.name) ? spec : rename(spec, name));
+        h.contents.put(content, name);
+        return CodeBlock.of("$T.$N", h.type, name);
+    }
+
+    /**
+     * private members are never reachable, package private and protected members only from the same package.
+     */
+    private static void reachable(String pkg, Set<Modifier> modifiers, String name, Element[] originating) {
+        if (modifiers.contains(Modifier.PUBLIC)) return;
+        if (modifiers.contains(Modifier.PRIVATE))
+            throw new IllegalArgumentException("helper member must not be private: " + name);
+        for (var o : originating) {
+            var e = o;
+            while (e != null && !(e instanceof PackageElement)) e = e.getEnclosingElement();
+            if (e != null && !((PackageElement) e).getQualifiedName().contentEquals(pkg))
+                throw new IllegalArgumentException("helper member must be public to be used from package "
+                        + ((PackageElement) e).getQualifiedName() + ": " + name);
+        }
+    }
+
+    /**
+     * overloads differ only by type arguments have same erasure and clash, they are keyed by erased types and renamed.
+     */
+    private static TypeName erasure(TypeName type) {
+        if (type instanceof ParameterizedTypeName) return ((ParameterizedTypeName) type).rawType;
+        if (type instanceof ArrayTypeName) return ArrayTypeName.of(erasure(((ArrayTypeName) type).componentType));
+        if (type instanceof TypeVariableName) {
+            var bounds = ((TypeVariableName) type).bounds;
+            return bounds.isEmpty() ? TypeName.OBJECT : erasure(bounds.get(0));
+        }
+        return type.withoutAnnotations();
+    }
+
+    private static MethodSpec rename(MethodSpec spec, String name) {
+        //setName resets return type
+        return spec.toBuilder().setName(name).returns(spec.returnType).build();
+    }
+
+    private static FieldSpec rename(FieldSpec spec, String name) {
+        var b = FieldSpec.builder(spec.type, name)
+                .addJavadoc(spec.javadoc)
+                .addAnnotations(spec.annotations)
+                .addModifiers(spec.modifiers.toArray(new Modifier[0]));
+        if (spec.initializer != null && !spec.initializer.isEmpty()) b.initializer(spec.initializer);
+        return b.build();
+    }
+
+    /**
+     * @return no pending helpers to build
+     */
+    public boolean isEmpty() {
+        for (var list : packages.values()) {
+            var h = list.get(list.size() - 1);
+            if (!h.written && !h.members.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * build pending helper classes, which are sealed: later members go to a new class of the package.
+     *
+     * @param decorate decorate each helper class, eg: add Generated annotation
+     * @return one file per package with pending helpers
+     */
+    public List<JavaFile> build(UnaryOperator<TypeSpec.Builder> decorate) {
+        var files = new ArrayList<JavaFile>();
+        for (var e : packages.entrySet()) {
+            var list = e.getValue();
+            var h = list.get(list.size() - 1);
+            if (h.written || h.members.isEmpty()) continue;
+            h.written = true;
+            var spec = TypeSpec.classBuilder(h.type)
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
+            for (var m : h.members.values()) {
+                if (m instanceof MethodSpec) spec.addMethod((MethodSpec) m);
+                else spec.addField((FieldSpec) m);
+            }
+            for (var o : h.originating) spec.addOriginatingElement(o);
+            h.originating.clear();
+            files.add(JavaFile.builder(e.getKey(), decorate.apply(spec).build()).build());
+        }
+        return files;
+    }
+
+    public void clear() {
+        packages.clear();
+    }
+}
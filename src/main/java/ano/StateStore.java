@@ -0,0 +1,301 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Typed key/value store of a processor which survives rounds, cleared when processing is over by {@link BaseProcessor}.
+ * <p>
+ * Elements must not be kept across rounds, store a {@link Handle} instead: it holds the qualified name
+ * and re-resolves the element lazily, once per round. resolved elements are dropped at the end of each round.
+ * With a positive capacity the store evicts least recently used entries.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class StateStore {
+    /**
+     * typed key, equals by name and type.
+     */
+    public static final class Key<V> {
+        private final String name;
+        private final Class<V> type;
+
+        private Key(String name, Class<V> type) {
+            this.name = Objects.requireNonNull(name);
+            this.type = Objects.requireNonNull(type);
+        }
+
+        public static <V> Key<V> of(String name, Class<V> type) {
+            return new Key<>(name, type);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public static <E extends Element> Key<Handle<E>> handle(String name) {
+            return new Key<>(name, (Class<Handle<E>>) (Class) Handle.class);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            var k = (Key<?>) o;
+            return name.equals(k.name) && type == k.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + type.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + type.getSimpleName();
+        }
+    }
+
+    /**
+     * element referenced by name, resolved at most once per round.
+     */
+    public final class Handle<E extends Element> {
+        private final Class<E> type;
+        private final ElementKind kind;
+        /**
+         * qualified name of type or package, or of enclosing type of a member
+         */
+        private final String owner;
+        /**
+         * simple name of a member, null for type or package
+         */
+        private final String member;
+        /**
+         * erased parameter types of executable, null for others
+         */
+        private final String signature;
+        /**
+         * handle of generic type or executable of a type parameter, null for others
+         */
+        private final Handle<?> generic;
+        /**
+         * element of current round, dropped by {@link StateStore#nextRound()}
+         */
+        private E resolved;
+        private int resolvedRound = -1;
+
+        private Handle(Class<E> type, ElementKind kind, String owner, String member, String signature, Handle<?> generic) {
+            this.type = type;
+            this.kind = kind;
+            this.owner = owner;
+            this.member = member;
+            this.signature = signature;
+            this.generic = generic;
+        }
+
+        /**
+         * @return element of current round, null if no longer exists
+         */
+        public E get() {
+            if (resolvedRound != round) {
+                resolved = type.cast(resolve());
+                resolvedRound = round;
+                if (resolved != null) resolvedHandles.add(this);
+            }
+            return resolved;
+        }
+
+        public ElementKind kind() {
+            return kind;
+        }
+
+        /**
+         * @return qualified name of type or package, or {@code Type#member} of a member
+         */
+        public String name() {
+            if (generic != null) return generic.name() + "<" + member + ">";
+            return member == null ? owner : owner + "#" + member + (signature == null ? "" : "(" + signature + ")");
+        }
+
+        private Element resolve() {
+            if (generic != null) {
+                var g = generic.resolve();
+                if (!(g instanceof Parameterizable)) return null;
+                for (var p : ((Parameterizable) g).getTypeParameters()) {
+                    if (p.getSimpleName().contentEquals(member)) return p;
+                }
+                return null;
+            }
+            if (kind == ElementKind.PACKAGE) return elements.getPackageElement(owner);
+            var t = elements.getTypeElement(owner);
+            if (t == null || member == null) return t;
+            for (var e : t.getEnclosedElements()) {
+                if (e.getKind() == kind && e.getSimpleName().contentEquals(member)
+                        && (signature == null || signature.equals(signature((ExecutableElement) e))))
+                    return e;
+            }
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + name();
+        }
+    }
+
+    private final Elements elements;
+    private final Types types;
+    private final Map<Key<?>, Object> values;
+    /**
+     * handles holding an element of current round
+     */
+    private final List<Handle<?>> resolvedHandles = new ArrayList<>();
+    private int round;
+
+    /**
+     * @param capacity max entries, not positive for unbounded
+     */
+    public StateStore(Elements elements, Types types, int capacity) {
+        this.elements = elements;
+        this.types = types;
+        this.values = capacity <= 0 ? new LinkedHashMap<>() : new LinkedHashMap<Key<?>, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<?>, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param element type, package, member of a type, or type parameter of those
+     * @return handle of the element
+     * @throws IllegalArgumentException other elements, eg: parameters and locals
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Element> Handle<E> handle(E element) {
+        var type = (Class<E>) (element instanceof TypeElement ? TypeElement.class
+                : element instanceof PackageElement ? PackageElement.class
+                : element instanceof ExecutableElement ? ExecutableElement.class
+                : element instanceof TypeParameterElement ? TypeParameterElement.class
+                : VariableElement.class);
+        if (element instanceof TypeElement)
+            return new Handle<>(type, element.getKind(), ((TypeElement) element).getQualifiedName().toString(), null, null, null);
+        if (element instanceof PackageElement)
+            return new Handle<>(type, element.getKind(), ((PackageElement) element).getQualifiedName().toString(), null, null, null);
+        if (element instanceof TypeParameterElement) {
+            var generic = handle(((TypeParameterElement) element).getGenericElement());
+            return new Handle<>(type, element.getKind(), generic.owner, element.getSimpleName().toString(), null, generic);
+        }
+        var owner = element.getEnclosingElement();
+        if (!(owner instanceof TypeElement))
+            throw new IllegalArgumentException("no handle for " + element.getKind() + " " + element);
+        return new Handle<>(type, element.getKind(), ((TypeElement) owner).getQualifiedName().toString(),
+                element.getSimpleName().toString(),
+                element instanceof ExecutableElement ? signature((ExecutableElement) element) : null, null);
+    }
+
+    private String signature(ExecutableElement e) {
+        var b = new StringBuilder();
+        for (var p : e.getParameters()) {
+            if (b.length() > 0) b.append(',');
+            b.append(types.erasure(p.asType()));
+        }
+        return b.toString();
+    }
+
+    public <V> V get(Key<V> key) {
+        return key.type.cast(values.get(key));
+    }
+
+    public <V> V getOrDefault(Key<V> key, V defaultValue) {
+        var v = get(key);
+        return v == null ? defaultValue : v;
+    }
+
+    /**
+     * @return previous value
+     */
+    public <V> V put(Key<V> key, V value) {
+        return key.type.cast(values.put(key, key.type.cast(value)));
+    }
+
+    public <V> V computeIfAbsent(Key<V> key, Function<Key<V>, V> fn) {
+        var v = get(key);
+        if (v == null) {
+            v = fn.apply(key);
+            if (v != null) put(key, v);
+        }
+        return v;
+    }
+
+    public <V> V remove(Key<V> key) {
+        return key.type.cast(values.remove(key));
+    }
+
+    public boolean contains(Key<?> key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * store handle of element
+     */
+    public <E extends Element> void putElement(Key<Handle<E>> key, E element) {
+        put(key, handle(element));
+    }
+
+    /**
+     * @return element of current round, null if not stored or no longer exists
+     */
+    public <E extends Element> E element(Key<Handle<E>> key) {
+        var h = get(key);
+        return h == null ? null : h.get();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * invalidate and drop resolved elements of handles, called at the end of each round.
+     */
+    void nextRound() {
+        release();
+        round++;
+    }
+
+    public void clear() {
+        values.clear();
+        release();
+    }
+
+    private void release() {
+        for (var h : resolvedHandles) h.resolved = null;
+        resolvedHandles.clear();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Filter of target elements by package globs and element kinds, compiled once from processor options.
+ * <p>
+ * Globs are matched against qualified package names: {@code *} matches within one segment, {@code **} matches any segments,
+ * eg: {@code com.foo.**} matches {@code com.foo} and all sub packages, {@code com.*.api} matches {@code com.foo.api}.
+ * Result of each package is cached, so a package is matched only once.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class TargetFilter {
+    /**
+     * accept all
+     */
+    public static final TargetFilter ALL = new TargetFilter(null, null, null);
+    private final Pattern include;
+    private final Pattern exclude;
+    private final Set<ElementKind> kinds;
+    private final Map<String, Boolean> packages = new HashMap<>();
+
+    private TargetFilter(Pattern include, Pattern exclude, Set<ElementKind> kinds) {
+        this.include = include;
+        this.exclude = exclude;
+        this.kinds = kinds;
+    }
+
+    /**
+     * @param include comma separated package globs, null or empty to include all
+     * @param exclude comma separated package globs, null or empty to exclude none
+     * @param kinds   comma separated names of {@link ElementKind}, case insensitive, null or empty for all kinds
+     * @return the filter
+     * @throws IllegalArgumentException unknown element kind
+     */
+    public static TargetFilter of(String include, String exclude, String kinds) {
+        var in = compile(include);
+        var ex = compile(exclude);
+        Set<ElementKind> k = null;
+        if (kinds != null && !kinds.trim().isEmpty()) {
+            k = EnumSet.noneOf(ElementKind.class);
+            for (var s : kinds.split(",")) {
+                if (!s.trim().isEmpty()) k.add(ElementKind.valueOf(s.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        if (in == null && ex == null && k == null) return ALL;
+        return new TargetFilter(in, ex, k);
+    }
+
+    private static Pattern compile(String globs) {
+        if (globs == null || globs.trim().isEmpty()) return null;
+        var b = new StringBuilder();
+        for (var g : globs.split(",")) {
+            g = g.trim();
+            if (g.isEmpty()) continue;
+            if (b.length() > 0) b.append('|');
+            b.append("(?:").append(regex(g)).append(')');
+        }
+        return b.length() == 0 ? null : Pattern.compile(b.toString());
+    }
+
+    private static String regex(String glob) {
+        var b = new StringBuilder();
+        var n = glob.length();
+        for (var i = 0; i < n; i++) {
+            var c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < n && glob.charAt(i + 1) == '*') {
+                    i++;
+                    if (b.length() > 1 && b.charAt(b.length() - 1) == '.' && b.charAt(b.length() - 2) == '\\') {
+                        //a.** matches a and its sub packages
+                        b.setLength(b.length() - 2);
+                        b.append("(?:\\..*)?");
+                    } else b.append(".*");
+                } else b.append("[^.]*");
+            } else if (Character.isJavaIdentifierPart(c)) b.append(c);
+            else b.append('\\').append(c);
+        }
+        return b.toString();
+    }
+
+    /**
+     * @return does filter accept every element
+     */
+    public boolean all() {
+        return this == ALL;
+    }
+
+    /**
+     * @param element the element
+     * @param pkg     package of the element
+     * @return is element accepted
+     */
+    public boolean accept(Element element, PackageElement pkg) {
+        if (kinds != null && !kinds.contains(element.getKind())) return false;
+        if (include == null && exclude == null) return true;
+        return packages.computeIfAbsent(pkg.getQualifiedName().toString(), this::accept);
+    }
+
+    /**
+     * @param pkg qualified package name
+     * @return is package accepted
+     */
+    public boolean accept(String pkg) {
+        if (include != null && !include.matcher(pkg).matches()) return false;
+        return exclude == null || !exclude.matcher(pkg).matches();
+    }
+
+    @Override
+    public String toString() {
+        return "TargetFilter{include=" + include + ", exclude=" + exclude + ", kinds=" + kinds + '}';
+    }
+}
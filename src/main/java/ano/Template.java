@@ -0,0 +1,110 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precompiled source template with named slots, used by {@link JavaSource#emit(Template, Object...)}.
+ * <p>
+ * Slots are written as <code>${name}</code>, <code>$$</code> writes a single <code>$</code>.
+ * A template should be compiled once (eg: a static final field) and rendered many times.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class Template {
+    /**
+     * literal parts, length is slots.length+1
+     */
+    final String[] literals;
+    /**
+     * slot index of each placeholder
+     */
+    final int[] slots;
+    final List<String> names;
+
+    private Template(String[] literals, int[] slots, List<String> names) {
+        this.literals = literals;
+        this.slots = slots;
+        this.names = names;
+    }
+
+    public static Template of(String source) {
+        var literals = new ArrayList<String>();
+        var slots = new ArrayList<Integer>();
+        var names = new ArrayList<String>();
+        var b = new StringBuilder();
+        var n = source.length();
+        for (var i = 0; i < n; i++) {
+            var c = source.charAt(i);
+            if (c != '$' || i + 1 == n) {
+                b.append(c);
+                continue;
+            }
+            var next = source.charAt(i + 1);
+            if (next == '$') {
+                b.append('$');
+                i++;
+            } else if (next == '{') {
+                var end = source.indexOf('}', i + 2);
+                if (end < 0) throw new IllegalArgumentException("unclosed slot at " + i + " of template: " + source);
+                var name = source.substring(i + 2, end).trim();
+                if (name.isEmpty()) throw new IllegalArgumentException("empty slot at " + i + " of template: " + source);
+                var idx = names.indexOf(name);
+                if (idx < 0) {
+                    idx = names.size();
+                    names.add(name);
+                }
+                literals.add(b.toString());
+                b.setLength(0);
+                slots.add(idx);
+                i = end;
+            } else {
+                b.append(c);
+            }
+        }
+        literals.add(b.toString());
+        var s = new int[slots.size()];
+        for (var i = 0; i < s.length; i++) s[i] = slots.get(i);
+        return new Template(literals.toArray(new String[0]), s, Collections.unmodifiableList(names));
+    }
+
+    /**
+     * @return distinct slot names in order of first appearance, which is the order of values when render.
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * @param name slot name
+     * @return index of the slot in values, -1 if not exists
+     */
+    public int slot(String name) {
+        return names.indexOf(name);
+    }
+
+    @Override
+    public String toString() {
+        return "Template" + names + Arrays.toString(literals);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.SneakyThrows;
+import lombok.var;
+
+import javax.lang.model.element.Element;
+import java.lang.annotation.Annotation;
+import java.time.Instant;
+
+/**
+ * Processor Generator for build a Java Code Generate Annotation Processor with {@link Template}s,
+ * without the object tree of JavaPoet.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public abstract class TemplateGenerator<T extends Annotation, E extends Element> extends BaseProcessor<T, E> {
+    protected final String suffix;
+    private final JavaSource source = new JavaSource();
+
+    protected TemplateGenerator(Class<T> annotationType, Class<E> elementType, String suffix) {
+        super(annotationType, elementType);
+        this.suffix = suffix;
+    }
+
+    /**
+     * implement this method to generate sources for type, use {@link #source(String, String, Element...)} and {@link #write(JavaSource)}
+     *
+     * @param pkg  current package
+     * @param type element
+     * @param anno annotation
+     */
+    protected abstract void build(String pkg, E type, T anno);
+
+    /**
+     * @param type Element
+     * @param anno Annotation
+     * @return skip next processor
+     */
+    protected boolean proc(E type, T anno) {
+        var pkg = packageOf(type).getQualifiedName().toString();
+        if (pkg == null || pkg.trim().length() == 0) throw new IllegalStateException("package required");
+        build(pkg, type, anno);
+        return false;
+    }
+
+    /**
+     * @return the shared source buffer of this generator, reset for a new file.
+     */
+    protected JavaSource source(String pkg, String name, Element... originating) {
+        return source.begin(pkg, name, originating);
+    }
+
+    /**
+     * stream the source into filer.
+     */
+    @SneakyThrows
+    protected void write(JavaSource source) {
+        source.writeTo(filer());
+    }
+
+    /**
+     * append Javadoc and Generated annotation, should be called just before type declaration.
+     *
+     * @param source the source
+     * @return the source
+     */
+    public JavaSource generatedBy(JavaSource source) {
+        source.append("/**\n * Generated Source should not modified!!\n */\n");
+        if (Platform.GENERATED != null) {
+            var generated = source.type(Platform.GENERATED);
+            source.append('@').append(generated)
+                    .append("(value = \"").append(this.getClass().getCanonicalName())
+                    .append("\", date = \"").append(Instant.now().toString())
+                    .append("\")\n");
+        }
+        return source;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import lombok.var;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Javac plugin records compile phases into {@link Timings}.
+ * <p>
+ * Use as {@code -Xplugin:AnoTiming} for a whole compilation report, or let {@link BaseProcessor} attach it
+ * with processor option {@code profile}. This is the only class of ano linked to the compiler API,
+ * it is never loaded when the compiler is not javac.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class TimingPlugin implements Plugin, TaskListener {
+    public static final String NAME = "AnoTiming";
+    /**
+     * COMPILATION event only exists since JDK 9, without it there is no chance to report at the end of compilation.
+     */
+    static final boolean reportable;
+
+    static {
+        var found = false;
+        for (var kind : TaskEvent.Kind.values()) {
+            if (kind.name().equals("COMPILATION")) {
+                found = true;
+                break;
+            }
+        }
+        reportable = found;
+    }
+    private Timings timings;
+    private Consumer<String> sink;
+    /**
+     * kind -> [depth, started at]
+     */
+    private final Map<String, long[]> running = new HashMap<>();
+
+    public TimingPlugin() {
+    }
+
+    private TimingPlugin(Timings timings, Consumer<String> sink) {
+        this.timings = timings;
+        this.sink = sink;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(JavacTask task, String... args) {
+        timings = Timings.of(task);
+        sink = System.err::println;
+        synchronized (timings) {
+            if (!timings.attached) {
+                timings.attached = true;
+                timings.listened = reportable;
+                task.addTaskListener(this);
+            }
+        }
+    }
+
+    /**
+     * listen a task created by {@link javax.tools.JavaCompiler}, without report: the caller reports,
+     * processors record into the timings with option {@code profile} and do not report either.
+     *
+     * @param task the task before call
+     * @return timings of the task, shared with {@link BaseProcessor}s in the task.
+     */
+    public static Timings listen(JavacTask task) {
+        var timings = Timings.of(task);
+        synchronized (timings) {
+            if (!timings.attached) {
+                timings.attached = true;
+                timings.listened = true;
+                task.addTaskListener(new TimingPlugin(timings, r -> {
+                }));
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * attach a listener when none registered by plugin, only called when profiling.
+     *
+     * @param env  processing environment
+     * @param sink report receiver
+     * @return timings of current compilation
+     * @throws IllegalArgumentException when env is not javac
+     */
+    static Timings attach(ProcessingEnvironment env, Consumer<String> sink) {
+        var task = JavacTask.instance(env);
+        var timings = Timings.of(task);
+        synchronized (timings) {
+            if (!timings.attached) {
+                timings.attached = true;
+                timings.listened = reportable;
+                task.addTaskListener(new TimingPlugin(timings, sink));
+            }
+        }
+        return timings;
+    }
+
+    @Override
+    public void started(TaskEvent e) {
+        var v = running.computeIfAbsent(e.getKind().name(), k -> new long[2]);
+        if (v[0]++ == 0) v[1] = System.nanoTime();
+    }
+
+    @Override
+    public void finished(TaskEvent e) {
+        var kind = e.getKind().name();
+        var v = running.get(kind);
+        if (v != null && v[0] > 0) {
+            if (--v[0] == 0) timings.phase(kind, System.nanoTime() - v[1]);
+        } else if (kind.equals("ANNOTATION_PROCESSING")) {
+            //attached by a processor, processing started before the listener
+            timings.phase(kind, System.nanoTime() - timings.begin);
+        }
+        if (kind.equals("COMPILATION")) sink.accept(timings.report());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compile time accounting shared by {@link TimingPlugin} and {@link BaseProcessor}.
+ * <p>
+ * Javac phases are recorded by the task listener, processors record the time spent in each round,
+ * the report correlates both. This class does not depend on the compiler API.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class Timings {
+    private static final Map<Object, Timings> registry = new WeakHashMap<>();
+
+    /**
+     * @param task the compilation task (javac JavacTask) as key
+     * @return shared timings of the task
+     */
+    static synchronized Timings of(Object task) {
+        return registry.computeIfAbsent(task, k -> new Timings());
+    }
+
+    final long begin = System.nanoTime();
+    /**
+     * name -> [nanos, count]
+     */
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private final Map<String, long[]> processors = new LinkedHashMap<>();
+    /**
+     * a listener is recording javac phases
+     */
+    volatile boolean attached;
+    /**
+     * the listener will report at the end of compilation
+     */
+    volatile boolean listened;
+    private boolean reported;
+
+    public synchronized void phase(String kind, long nanos) {
+        var v = phases.computeIfAbsent(kind, k -> new long[2]);
+        v[0] += nanos;
+        v[1]++;
+    }
+
+    public synchronized void processor(String name, long nanos) {
+        var v = processors.computeIfAbsent(name, k -> new long[2]);
+        v[0] += nanos;
+        v[1]++;
+    }
+
+    /**
+     * @return recorded nanos of a javac phase (TaskEvent.Kind name)
+     */
+    public synchronized long phaseNanos(String kind) {
+        var v = phases.get(kind);
+        return v == null ? 0 : v[0];
+    }
+
+    /**
+     * @return recorded nanos of all processors
+     */
+    public synchronized long processorNanos() {
+        long n = 0;
+        for (var v : processors.values()) n += v[0];
+        return n;
+    }
+
+    /**
+     * @return nanos since created
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * @return does report will be emitted by a task listener at the end of compilation
+     */
+    public boolean listened() {
+        return listened;
+    }
+
+    /**
+     * @return true for the first caller only, processors of a task emit the report once
+     */
+    synchronized boolean reportOnce() {
+        if (reported) return false;
+        reported = true;
+        return true;
+    }
+
+    /**
+     * @return human readable report, phases may overlap as javac nests them (eg: ENTER inside annotation processing rounds).
+     */
+    public synchronized String report() {
+        var total = System.nanoTime() - begin;
+        var b = new StringBuilder();
+        b.append("ano timings: total ").append(ms(total)).append(" ms");
+        for (var e : phases.entrySet()) {
+            b.append("\n  phase ").append(e.getKey())
+                    .append(' ').append(ms(e.getValue()[0])).append(" ms")
+                    .append(" (x").append(e.getValue()[1]).append(')')
+                    .append(' ').append(percent(e.getValue()[0], total)).append('%');
+        }
+        var processing = phases.get("ANNOTATION_PROCESSING");
+        long base;
+        if (processing != null) base = processing[0];
+        else {
+            base = 0;
+            for (var v : processors.values()) base += v[0];
+        }
+        for (var e : processors.entrySet()) {
+            b.append("\n  processor ").append(e.getKey())
+                    .append(' ').append(ms(e.getValue()[0])).append(" ms")
+                    .append(" in ").append(e.getValue()[1]).append(" rounds")
+                    .append(' ').append(percent(e.getValue()[0], base)).append("% of annotation processing")
+                    .append(", ").append(percent(e.getValue()[0], total)).append("% of total");
+        }
+        return b.toString();
+    }
+
+    private static long ms(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static String percent(long part, long whole) {
+        if (whole <= 0) return "0.0";
+        return String.format("%.1f", part * 100.0 / whole);
+    }
+}
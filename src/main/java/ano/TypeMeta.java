@@ -0,0 +1,191 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import lombok.var;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Runtime metadata of a type generated by {@link MetadataGenerator}, replaces reflection over annotations and fields.
+ * <p>
+ * Generated implementations are registered as services of this interface and in the name index {@value Registry#INDEX},
+ * use {@link #of(Class)} to lookup: only the metadata of the requested type is loaded.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public interface TypeMeta {
+    Class<?> type();
+
+    /**
+     * @return annotation canonical name -> member name -> value, with default values.
+     * Class values are Class or canonical name when not accessible, enums are constants,
+     * arrays are unmodifiable Lists, nested annotations are Maps.
+     */
+    Map<String, Map<String, Object>> annotations();
+
+    /**
+     * @return declared fields
+     */
+    List<Member> fields();
+
+    /**
+     * @return declared methods
+     */
+    List<Member> methods();
+
+    default Map<String, Object> annotation(Class<? extends Annotation> type) {
+        return annotations().get(type.getCanonicalName());
+    }
+
+    default Optional<Member> field(String name) {
+        for (var f : fields()) {
+            if (f.name.equals(name)) return Optional.of(f);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * field or method of a type.
+     */
+    final class Member {
+        public final String name;
+        /**
+         * field type or method return type, erased. Object when not accessible.
+         */
+        public final Class<?> type;
+        /**
+         * parameter types of method, erased.
+         */
+        public final List<Class<?>> parameters;
+        public final Map<String, Map<String, Object>> annotations;
+
+        public Member(String name, Class<?> type, List<Class<?>> parameters, Map<String, Map<String, Object>> annotations) {
+            this.name = name;
+            this.type = type;
+            this.parameters = parameters;
+            this.annotations = annotations;
+        }
+
+        public Map<String, Object> annotation(Class<? extends Annotation> type) {
+            return annotations.get(type.getCanonicalName());
+        }
+
+        @Override
+        public String toString() {
+            return name + (parameters.isEmpty() ? "" : parameters.toString()) + ":" + type.getName();
+        }
+    }
+
+    /**
+     * @param type the type
+     * @return generated metadata, instantiated once per type
+     */
+    static Optional<TypeMeta> of(Class<?> type) {
+        return Registry.metas.get(type);
+    }
+
+    /**
+     * @param loader the ClassLoader
+     * @return all generated metadata visible to the loader
+     */
+    static Collection<TypeMeta> all(ClassLoader loader) {
+        var all = new ArrayList<TypeMeta>();
+        for (var name : Registry.names(loader).keySet()) {
+            try {
+                of(Class.forName(name, false, loader)).ifPresent(all::add);
+            } catch (ClassNotFoundException e) {
+                //stale entry of the index
+            }
+        }
+        return all;
+    }
+
+    /**
+     * used by generated sources.
+     */
+    static Map<String, Object> mapOf(Object... kvs) {
+        var m = new LinkedHashMap<String, Object>(kvs.length);
+        for (var i = 0; i + 1 < kvs.length; i += 2) m.put((String) kvs[i], kvs[i + 1]);
+        return Collections.unmodifiableMap(m);
+    }
+
+    /**
+     * used by generated sources.
+     */
+    static List<Object> listOf(Object... values) {
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    final class Registry {
+        /**
+         * name index written by {@link MetadataGenerator}: a line of {@code type=metadata class} per type, binary names.
+         */
+        public static final String INDEX = "META-INF/ano/TypeMeta.index";
+        /**
+         * loader -> type name -> meta class name, holds no class of the loader, entries are collected with the loader.
+         */
+        private static final Map<ClassLoader, Map<String, String>> names = new WeakHashMap<>();
+        /**
+         * metadata held by the type itself, never pins a class loader. only the requested metadata is loaded.
+         */
+        static final ClassValue<Optional<TypeMeta>> metas = new ClassValue<Optional<TypeMeta>>() {
+            @Override
+            protected Optional<TypeMeta> computeValue(Class<?> type) {
+                var meta = names(type.getClassLoader()).get(type.getName());
+                if (meta == null) return Optional.empty();
+                try {
+                    return Optional.of((TypeMeta) Class.forName(meta, true, type.getClassLoader()).getConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("failed to instantiate metadata " + meta, e);
+                }
+            }
+        };
+
+        private Registry() {
+        }
+
+        /**
+         * read the name indexes visible to the loader, neither types nor metadata classes are loaded.
+         */
+        static synchronized Map<String, String> names(ClassLoader loader) {
+            return names.computeIfAbsent(loader, l -> {
+                var m = new HashMap<String, String>();
+                try {
+                    var urls = l == null ? ClassLoader.getSystemResources(INDEX) : l.getResources(INDEX);
+                    while (urls.hasMoreElements()) {
+                        try (var r = new BufferedReader(new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                            for (var line = r.readLine(); line != null; line = r.readLine()) {
+                                var i = line.indexOf('=');
+                                if (i > 0) m.putIfAbsent(line.substring(0, i).trim(), line.substring(i + 1).trim());
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("failed to read " + INDEX, e);
+                }
+                return Collections.unmodifiableMap(m);
+            });
+        }
+    }
+}
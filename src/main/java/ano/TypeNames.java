@@ -0,0 +1,178 @@
+/*
+ * Source of ano
+ * Copyright (C) 2023.  Zen.Liu
+ *
+ * SPDX-License-Identifier: GPL-2.0-only WITH Classpath-exception-2.0"
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License as published by the Free Software Foundation; version 2.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ * Class Path Exception
+ * Linking this library statically or dynamically with other modules is making a combined work based on this library. Thus, the terms and conditions of the GNU General Public License cover the whole combination.
+ *  As a special exception, the copyright holders of this library give you permission to link this library with independent modules to produce an executable, regardless of the license terms of these independent modules, and to copy and distribute the resulting executable under terms of your choice, provided that you also meet, for each linked independent module, the terms and conditions of the license of that module. An independent module is a module which is not derived from or based on this library. If you modify this library, you may extend this exception to your version of the library, but you are not obligated to do so. If you do not wish to do so, delete this exception statement from your version.
+ */
+
+package ano;
+
+import com.squareup.javapoet.*;
+import lombok.var;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.*;
+import javax.lang.model.util.SimpleTypeVisitor8;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Memoized conversion of {@link TypeMirror} and {@link TypeElement} to JavaPoet {@link TypeName}, keyed on identity.
+ * <p>
+ * Same result as {@link TypeName#get(TypeMirror)} and {@link ClassName#get(TypeElement)},
+ * type arguments, components and enclosing types are converted through the cache too,
+ * so a deeply generic type is converted once for all its occurrences.
+ * Mirrors are only valid within a round, {@link JavaGenerator} clears the cache at the end of each round.
+ *
+ * @author Zen.Liu
+ * @since 2026-10-19
+ */
+public final class TypeNames {
+    private final Types types;
+    private final Map<TypeMirror, TypeName> names = new IdentityHashMap<>();
+    private final Map<TypeMirror, TypeName> erased = new IdentityHashMap<>();
+    private final Map<TypeElement, ClassName> classes = new IdentityHashMap<>();
+    private final Visitor visitor = new Visitor();
+
+    public TypeNames(Types types) {
+        this.types = types;
+    }
+
+    /**
+     * @return same as {@link TypeName#get(TypeMirror)}
+     */
+    public TypeName get(TypeMirror type) {
+        var n = names.get(type);
+        if (n == null) {
+            n = type.accept(visitor, null);
+            names.put(type, n);
+        }
+        return n;
+    }
+
+    /**
+     * @return same as {@link ClassName#get(TypeElement)}
+     */
+    public ClassName get(TypeElement type) {
+        var n = classes.get(type);
+        if (n == null) {
+            var enclosing = type.getEnclosingElement();
+            n = enclosing instanceof TypeElement
+                    ? get((TypeElement) enclosing).nestedClass(type.getSimpleName().toString())
+                    : ClassName.get(type);
+            classes.put(type, n);
+        }
+        return n;
+    }
+
+    /**
+     * @return type name of erasure of the type
+     */
+    public TypeName erased(TypeMirror type) {
+        var n = erased.get(type);
+        if (n == null) {
+            n = type.getKind() == TypeKind.DECLARED
+                    ? get((TypeElement) ((DeclaredType) type).asElement()) //erasure of a declared type is its raw class
+                    : get(types.erasure(type));
+            erased.put(type, n);
+        }
+        return n;
+    }
+
+    /**
+     * @return boxed type name for primitives, else same as {@link #get(TypeMirror)}
+     */
+    public TypeName boxed(TypeMirror type) {
+        var n = get(type);
+        return n.isPrimitive() ? n.box() : n;
+    }
+
+    public int size() {
+        return names.size() + erased.size() + classes.size();
+    }
+
+    public void clear() {
+        names.clear();
+        erased.clear();
+        classes.clear();
+    }
+
+    private final class Visitor extends SimpleTypeVisitor8<TypeName, Void> {
+        @Override
+        public TypeName visitPrimitive(PrimitiveType t, Void unused) {
+            switch (t.getKind()) {
+                case BOOLEAN:
+                    return TypeName.BOOLEAN;
+                case BYTE:
+                    return TypeName.BYTE;
+                case SHORT:
+                    return TypeName.SHORT;
+                case INT:
+                    return TypeName.INT;
+                case LONG:
+                    return TypeName.LONG;
+                case CHAR:
+                    return TypeName.CHAR;
+                case FLOAT:
+                    return TypeName.FLOAT;
+                case DOUBLE:
+                    return TypeName.DOUBLE;
+                default:
+                    throw new AssertionError();
+            }
+        }
+
+        @Override
+        public TypeName visitDeclared(DeclaredType t, Void unused) {
+            var raw = get((TypeElement) t.asElement());
+            var enclosing = t.getEnclosingType();
+            var outer = enclosing.getKind() != TypeKind.NONE && !t.asElement().getModifiers().contains(Modifier.STATIC)
+                    ? get(enclosing)
+                    : null;
+            if (t.getTypeArguments().isEmpty() && !(outer instanceof ParameterizedTypeName)) return raw;
+            var args = new ArrayList<TypeName>(t.getTypeArguments().size());
+            for (var a : t.getTypeArguments()) args.add(get(a));
+            return outer instanceof ParameterizedTypeName
+                    ? ((ParameterizedTypeName) outer).nestedClass(raw.simpleName(), args)
+                    : ParameterizedTypeName.get(raw, args.toArray(new TypeName[0]));
+        }
+
+        @Override
+        public TypeName visitArray(ArrayType t, Void unused) {
+            return ArrayTypeName.of(get(t.getComponentType()));
+        }
+
+        @Override
+        public TypeName visitWildcard(WildcardType t, Void unused) {
+            var ext = t.getExtendsBound();
+            if (ext != null) return WildcardTypeName.subtypeOf(get(ext));
+            var sup = t.getSuperBound();
+            return sup == null ? WildcardTypeName.subtypeOf(Object.class) : WildcardTypeName.supertypeOf(get(sup));
+        }
+
+        @Override
+        public TypeName visitNoType(NoType t, Void unused) {
+            if (t.getKind() == TypeKind.VOID) return TypeName.VOID;
+            return super.visitNoType(t, unused);
+        }
+
+        /**
+         * type variables (with recursive bounds), errors and others
+         */
+        @Override
+        protected TypeName defaultAction(TypeMirror e, Void unused) {
+            return TypeName.get(e);
+        }
+    }
+}
@@ -200,6 +200,24 @@ public interface Utils {
     default Map<? extends ExecutableElement, ? extends AnnotationValue> valuesWithDefaults(AnnotationMirror e) {
         return procEnv().getElementUtils().getElementValuesWithDefaults(e);
     }
+
+    /**
+     * cached by {@link DocComments} of the environment, read once a round for all processors.
+     *
+     * @return raw doc comment, null if absent
+     */
+    default String docComment(Element e) {
+        return DocComments.of(procEnv()).raw(e, procEnv().getElementUtils());
+    }
+
+    /**
+     * cached by {@link DocComments} of the environment, read and parsed once a round for all processors.
+     *
+     * @return parsed doc comment, null if absent
+     */
+    default DocComment doc(Element e) {
+        return DocComments.of(procEnv()).get(e, procEnv().getElementUtils());
+    }
     //endregion
 
 
@@ -212,10 +230,12 @@ public interface Utils {
     static <T extends Annotation> Values<T> values(Element element, Class<T> type) {
         var anno = element.getAnnotation(type);
         if (anno == null) return null;
-        return new Values<>(anno);
+        return new Values<>(anno, element);
     }
 
     /**
+     * for many queries in a round, use {@link AnnotationIndex} instead.
+     *
      * @param element target
      * @param type    annotation
      * @return annotation exists on type/parameter/type-use
@@ -242,6 +262,8 @@ public interface Utils {
     }
 
     /**
+     * for many queries in a round, use {@link AnnotationIndex} instead.
+     *
      * @param element target
      * @param type    annotations
      * @return first founded annotation on target
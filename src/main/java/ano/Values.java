@@ -15,15 +15,18 @@
 
 package ano;
 
-import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.var;
 
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.reflect.Array;
 import java.lang.reflect.Proxy;
-import java.util.Arrays;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 
 /**
@@ -33,19 +36,36 @@ import java.util.function.Function;
  * @since 2023-02-25
  */
 @SuppressWarnings("unchecked")
-public class Values<T extends Annotation> {
+public class Values<T extends Annotation> implements RoundScope.Owned {
     public static <T extends Annotation> Values<T> of(T val) {
         return new Values<>(val);
     }
 
-    private final T delegate;
-    @Getter
-    private final T value;
+    /**
+     * @param val     annotation
+     * @param element the annotated element, required by Class member accessors.
+     */
+    public static <T extends Annotation> Values<T> of(T val, Element element) {
+        return new Values<>(val, element);
+    }
+
+    private T delegate;
+    private T value;
+    private Element element;
     private volatile Boolean empty;
+    /**
+     * member name -> [value, default value], resolved from AnnotationMirror
+     */
+    private Map<String, AnnotationValue[]> mirrored;
 
 
     Values(T value) {
+        this(value, null);
+    }
+
+    Values(T value, Element element) {
         this.value = value;
+        this.element = element;
         var type = value.annotationType();
         this.delegate = (T) Proxy.newProxyInstance(value.getClass().getClassLoader(), value.getClass().getInterfaces(), (p, m, args) -> {
             var ret = m.getReturnType();
@@ -59,17 +79,197 @@ public class Values<T extends Annotation> {
         });
     }
 
+    /**
+     * @throws IllegalStateException when released by {@link RoundScope}
+     */
+    public T getValue() {
+        check();
+        return value;
+    }
+
+    /**
+     * @return the annotated element, null if not provided
+     * @throws IllegalStateException when released by {@link RoundScope}
+     */
+    public Element getElement() {
+        check();
+        return element;
+    }
+
     public <V> Optional<V> fetch(Function<T, V> method) {
+        check();
         return Optional.ofNullable(method.apply(delegate));
     }
 
     public <V> V get(Function<T, V> method) {
+        check();
         return method.apply(value);
     }
 
+    @Override
+    public void release() {
+        delegate = null;
+        value = null;
+        element = null;
+        mirrored = null;
+    }
+
+    @Override
+    public long footprint() {
+        return 160 + (mirrored == null ? 0 : mirrored.size() * 64L);
+    }
+
+    private void check() {
+        if (value == null) throw new IllegalStateException("Values was released at the end of round");
+    }
+
+    //region Class members
+
+    /**
+     * read a Class member as TypeMirror from the AnnotationMirror, without {@link javax.lang.model.type.MirroredTypeException}.
+     *
+     * @param member the member, eg: {@code Anno::type}
+     * @return the value, or the default value
+     */
+    public TypeMirror getType(Function<T, Class<?>> member) {
+        return getType(memberName(member));
+    }
+
+    /**
+     * @param member the member, eg: {@code Anno::type}
+     * @return the value if not equals to default
+     */
+    public Optional<TypeMirror> fetchType(Function<T, Class<?>> member) {
+        return fetchType(memberName(member));
+    }
+
+    /**
+     * read a Class array member as TypeMirrors from the AnnotationMirror, without {@link javax.lang.model.type.MirroredTypesException}.
+     *
+     * @param member the member, eg: {@code Anno::types}
+     * @return the value, or the default value
+     */
+    public List<TypeMirror> getTypes(Function<T, Class<?>[]> member) {
+        return getTypes(memberName(member));
+    }
+
+    /**
+     * @param member the member, eg: {@code Anno::types}
+     * @return the value if not equals to default
+     */
+    public Optional<List<TypeMirror>> fetchTypes(Function<T, Class<?>[]> member) {
+        return fetchTypes(memberName(member));
+    }
+
+    public TypeMirror getType(String member) {
+        var v = mirrored(member);
+        var a = v[0] != null ? v[0] : v[1];
+        return a == null ? null : (TypeMirror) a.getValue();
+    }
+
+    public Optional<TypeMirror> fetchType(String member) {
+        var v = mirrored(member);
+        if (v[0] == null || Objects.equals(v[0].getValue(), v[1] == null ? null : v[1].getValue())) return Optional.empty();
+        return Optional.of((TypeMirror) v[0].getValue());
+    }
+
+    public List<TypeMirror> getTypes(String member) {
+        var v = mirrored(member);
+        return types(v[0] != null ? v[0] : v[1]);
+    }
+
+    public Optional<List<TypeMirror>> fetchTypes(String member) {
+        var v = mirrored(member);
+        if (v[0] == null) return Optional.empty();
+        var t = types(v[0]);
+        if (v[1] != null && t.equals(types(v[1]))) return Optional.empty();
+        return Optional.of(t);
+    }
+
+    private static List<TypeMirror> types(AnnotationValue v) {
+        if (v == null) return Collections.emptyList();
+        var l = (List<?>) v.getValue();
+        var r = new ArrayList<TypeMirror>(l.size());
+        for (var x : l) r.add((TypeMirror) ((AnnotationValue) x).getValue());
+        return r;
+    }
+
+    private AnnotationValue[] mirrored(String member) {
+        check();
+        if (mirrored == null) mirrored = resolve();
+        var v = mirrored.get(member);
+        if (v == null) throw new IllegalArgumentException("member " + member + " not exists in " + value.annotationType());
+        return v;
+    }
+
+    private Map<String, AnnotationValue[]> resolve() {
+        if (element == null) throw new IllegalStateException("element is required to read Class members as TypeMirror");
+        var name = value.annotationType().getCanonicalName();
+        var mirror = mirrorOf(element, name, value.annotationType().isAnnotationPresent(Inherited.class));
+        if (mirror == null) throw new IllegalStateException("AnnotationMirror of " + name + " not found on " + element);
+        var map = new HashMap<String, AnnotationValue[]>();
+        for (var e : mirror.getAnnotationType().asElement().getEnclosedElements()) {
+            if (e.getKind() != ElementKind.METHOD) continue;
+            map.put(e.getSimpleName().toString(), new AnnotationValue[]{null, ((ExecutableElement) e).getDefaultValue()});
+        }
+        mirror.getElementValues().forEach((k, v) -> map.get(k.getSimpleName().toString())[0] = v);
+        return map;
+    }
+
+    /**
+     * find AnnotationMirror on element, or on super classes for inherited annotations.
+     *
+     * @param inherited the annotation is {@link Inherited}, only then super classes are searched
+     */
+    static AnnotationMirror mirrorOf(Element element, String qualifiedName, boolean inherited) {
+        var e = element;
+        while (e != null) {
+            for (var m : e.getAnnotationMirrors()) {
+                if (((TypeElement) m.getAnnotationType().asElement()).getQualifiedName().contentEquals(qualifiedName))
+                    return m;
+            }
+            if (!inherited || !(e instanceof TypeElement)) return null;
+            var sup = ((TypeElement) e).getSuperclass();
+            e = sup.getKind() == TypeKind.DECLARED ? ((DeclaredType) sup).asElement() : null;
+        }
+        return null;
+    }
+
+    /**
+     * recording proxy of each annotation type, held by the annotation class itself, never pins a class loader.
+     */
+    private static final ClassValue<Object> recorders = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> t) {
+            return Proxy.newProxyInstance(t.getClassLoader(), new Class<?>[]{t}, (p, m, args) -> {
+                recorded.set(m.getName());
+                var ret = m.getReturnType();
+                return ret.isPrimitive() ? Array.get(Array.newInstance(ret, 1), 0) : null;
+            });
+        }
+    };
+    private static final ThreadLocal<String> recorded = new ThreadLocal<>();
+
+    /**
+     * find member name by invoke the function on a recording proxy.
+     */
+    private String memberName(Function<T, ?> member) {
+        check();
+        var type = value.annotationType();
+        var recorder = (T) recorders.get(type);
+        recorded.remove();
+        member.apply(recorder);
+        var name = recorded.get();
+        recorded.remove();
+        if (name == null) throw new IllegalArgumentException("function is not a member of " + type);
+        return name;
+    }
+    //endregion
+
     @SuppressWarnings("ConstantConditions")
     @SneakyThrows
     public boolean isEmpty() {
+        check();
         if (empty == null) {
             synchronized (value) {
                 for (var m : value.annotationType().getDeclaredMethods()) {
@@ -107,6 +307,6 @@ public class Values<T extends Annotation> {
 
     @Override
     public String toString() {
-        return value.toString();
+        return value == null ? "Values(released)" : value.toString();
     }
 }